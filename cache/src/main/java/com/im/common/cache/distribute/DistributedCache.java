@@ -4,9 +4,11 @@ import cn.hutool.json.JSONUtil;
 import com.im.common.cache.distribute.convert.TypeConvert;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * 分布式缓存接口。
@@ -37,6 +39,36 @@ public interface DistributedCache {
      */
     boolean expire(String key, Duration ttl);
 
+    /**
+     * 批量设置缓存并设置相同的过期时间（TTL），所有写入在一次管道请求中完成。
+     * @param values 键到值的映射（值的序列化方式与 {@link #set(String, Object)} 一致）
+     * @param ttl 过期时间（TTL），为 null 或非正数时不设置过期时间
+     */
+    void batchSet(Map<String, ?> values, Duration ttl);
+
+    /**
+     * 批量设置 key 的过期时间（TTL），所有请求在一次管道请求中完成。
+     * @param keys 缓存键集合
+     * @param ttl 过期时间（TTL）
+     */
+    void batchExpire(Collection<String> keys, Duration ttl);
+
+    /**
+     * 仅当新值大于缓存中的当前值（或 key 不存在）时写入，比较与写入原子执行。
+     * 适用于已读位置等只增不减的数值。
+     * @param key 缓存键
+     * @param value 新值
+     * @return 是否写入了新值
+     */
+    boolean setIfGreater(String key, long value);
+
+    /**
+     * 批量执行 {@link #setIfGreater(String, long)}，在一次请求中完成。
+     * @param values 键到新值的映射
+     * @return 实际写入新值的 key 数量
+     */
+    long batchSetIfGreater(Map<String, Long> values);
+
     /**
      * 设置缓存并同时设置逻辑过期时间。
      * 逻辑过期指在值中携带一个“逻辑失效”的时间戳（如用于缓存击穿保护与异步刷新），
@@ -70,6 +102,26 @@ public interface DistributedCache {
      */
     Map<String, String> batchGet(List<String> keys);
 
+    /**
+     * 根据 key 列表批量获取指定类型的缓存值。
+     * 批量较大时会并行反序列化，返回的映射按命中数预先分配容量。
+     * @param keys 缓存键列表
+     * @param type 目标类型（用于反序列化）
+     * @param <T> 目标泛型类型
+     * @return 键到值的映射，未命中键不包含在返回映射中
+     */
+    <T> Map<String, T> batchGet(List<String> keys, Class<T> type);
+
+    /**
+     * 根据 key 列表批量获取指定类型的缓存值，结果按下标与 keys 对齐。
+     * 适用于按位置使用结果的场景，省去构建映射的开销。
+     * @param keys 缓存键列表
+     * @param type 目标类型（用于反序列化）
+     * @param <T> 目标泛型类型
+     * @return 与 keys 等长的值列表，未命中的位置为 null
+     */
+    <T> List<T> batchGetList(List<String> keys, Class<T> type);
+
     /**
      * 根据正则表达式匹配并获取所有键。
      * @param regex 正则表达式（如 "user:.*"）
@@ -77,6 +129,42 @@ public interface DistributedCache {
      */
     Set<String> getKeysByPattern(String regex);
 
+    /**
+     * 以游标方式增量扫描匹配的键，每扫描到一批键调用一次 batchConsumer。
+     * 与 {@link #getKeysByPattern(String)} 不同，扫描不会一次性阻塞缓存服务，适合键数量较多的场景；
+     * 扫描期间被修改的键可能被遗漏或重复返回。
+     * @param pattern 键匹配模式（如 "im:cache:friend:*"）
+     * @param batchSize 每批键的数量，同时作为每次扫描的 COUNT 提示
+     * @param batchConsumer 批量键的处理函数，返回 false 时停止扫描
+     * @return 扫描到的键数量
+     */
+    long scan(String pattern, int batchSize, Predicate<List<String>> batchConsumer);
+
+    /**
+     * 获取可以并行扫描的分区数量，每个分区有各自的游标，例如集群中的每个主节点。
+     * @return 分区数量，不支持分区时为 1
+     */
+    default int scanPartitions() {
+        return 1;
+    }
+
+    /**
+     * 以游标方式扫描一个分区中匹配的键，不同分区可以在不同线程上并行扫描。
+     * 分区编号取值为 [0, {@link #scanPartitions()})，拓扑变化后编号可能对应不同的分区。
+     * @param partition 分区编号
+     * @param pattern 键匹配模式（如 "im:cache:friend:*"）
+     * @param batchSize 每批键的数量，同时作为每次扫描的 COUNT 提示
+     * @param batchConsumer 批量键的处理函数，返回 false 时停止扫描
+     * @return 扫描到的键数量
+     * @throws IllegalArgumentException 如果分区编号超出范围
+     */
+    default long scan(int partition, String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        if (partition != 0) {
+            throw new IllegalArgumentException("Scan partition out of range: " + partition);
+        }
+        return scan(pattern, batchSize, batchConsumer);
+    }
+
     /**
      * 删除指定的 key。
      * @param key 缓存键
@@ -84,6 +172,15 @@ public interface DistributedCache {
      */
     boolean delete(String key);
 
+    /**
+     * 仅当缓存中的值等于 expected 时删除，比较与删除原子执行。
+     * 适用于只允许所有者删除的键，如用户路由只能由其所在的节点移除。不删除逻辑过期时间键。
+     * @param key 缓存键
+     * @param expected 期望的值，按 {@link #getValue(Object)} 转换后比较
+     * @return 是否删除了该 key
+     */
+    boolean deleteIfEquals(String key, Object expected);
+
     default String getValue(Object value){
         return TypeConvert.isSimpleType(value) ? String.valueOf(value) : JSONUtil.toJsonStr(value);
     }
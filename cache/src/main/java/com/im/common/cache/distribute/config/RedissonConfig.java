@@ -1,21 +1,35 @@
 package com.im.common.cache.distribute.config;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.BaseMasterSlaveServersConfig;
 import org.redisson.config.Config;
+import org.redisson.config.ReadMode;
 import org.redisson.config.SingleServerConfig;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.StringUtils;
 
 /**
  * Redisson 配置类。
- * 提供 Redisson 客户端配置，支持单机、集群、哨兵等多种部署模式。
- * 配置项：cache.distributed.redisson.enabled=true 时启用此配置。
+ * 提供 Redisson 客户端配置，支持单机、集群、哨兵、主从复制等多种部署模式，
+ * 由 spring.redis.redisson.mode 选择（single、cluster、sentinel、replicated，默认 single）：
+ * <ul>
+ *     <li>single：使用 spring.redis.host、spring.redis.port</li>
+ *     <li>cluster：使用 spring.redis.cluster.nodes，格式：host1:port1,host2:port2,...</li>
+ *     <li>sentinel：使用 spring.redis.sentinel.master 与 spring.redis.sentinel.nodes</li>
+ *     <li>replicated：使用 spring.redis.redisson.replicated-nodes（如云厂商的主从实例），自动识别主节点</li>
+ * </ul>
+ * 集群模式下锁与缓存的键分布到各个分片，不再受单台 Redis 的吞吐限制。
+ * 连接池大小对每个主节点（connection-pool-size）与每个从节点（slave-connection-pool-size）分别生效；
+ * spring.redis.redisson.read-mode 决定读请求发往主节点（MASTER，默认）、从节点（SLAVE）或二者（MASTER_SLAVE），
+ * 从节点读取会分担主节点压力，但可能读到复制延迟内的旧值。锁操作总是在主节点上执行。
+ * 配置项：cache.distributed.redisson.enabled=true（分布式锁）或 cache.distributed.type=redisson（分布式缓存）时启用此配置，
+ * 两者同时启用时共用同一个客户端与连接池。
  */
 @Configuration
-@ConditionalOnProperty(name = "cache.distributed.redisson.enabled", havingValue = "true", matchIfMissing = false)
+@ConditionalOnExpression("${cache.distributed.redisson.enabled:false} || '${cache.distributed.type:}' == 'redisson'")
 public class RedissonConfig {
 
     @Value("${spring.redis.host:localhost}")
@@ -33,104 +47,152 @@ public class RedissonConfig {
     @Value("${spring.redis.timeout:3000}")
     private int timeout;
 
+    @Value("${spring.redis.cluster.nodes:}")
+    private String clusterNodes;
+
+    @Value("${spring.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    @Value("${spring.redis.sentinel.nodes:}")
+    private String sentinelNodes;
+
+    @Value("${spring.redis.redisson.mode:single}")
+    private String mode;
+
+    @Value("${spring.redis.redisson.replicated-nodes:}")
+    private String replicatedNodes;
+
     @Value("${spring.redis.redisson.connection-pool-size:64}")
     private int connectionPoolSize;
 
     @Value("${spring.redis.redisson.connection-minimum-idle-size:10}")
     private int connectionMinimumIdleSize;
 
+    @Value("${spring.redis.redisson.slave-connection-pool-size:64}")
+    private int slaveConnectionPoolSize;
+
+    @Value("${spring.redis.redisson.slave-connection-minimum-idle-size:10}")
+    private int slaveConnectionMinimumIdleSize;
+
+    @Value("${spring.redis.redisson.subscription-connection-pool-size:50}")
+    private int subscriptionConnectionPoolSize;
+
+    @Value("${spring.redis.redisson.read-mode:MASTER}")
+    private ReadMode readMode;
+
+    /**
+     * 集群与主从复制模式下拓扑变化的扫描间隔（毫秒）。
+     */
+    @Value("${spring.redis.redisson.scan-interval-millis:1000}")
+    private int scanIntervalMillis;
+
     /**
-     * 配置 Redisson 客户端（单机模式）。
+     * 按 spring.redis.redisson.mode 配置 Redisson 客户端。
      *
      * @return RedissonClient 实例
+     * @throws IllegalArgumentException 如果模式未知或缺少该模式所需的节点配置
      */
     @Bean(destroyMethod = "shutdown")
     public RedissonClient redissonClient() {
         Config config = new Config();
+        switch (mode.trim().toLowerCase()) {
+            case "single":
+                configureSingleServer(config);
+                break;
+            case "cluster":
+                configureClusterServers(config);
+                break;
+            case "sentinel":
+                configureSentinelServers(config);
+                break;
+            case "replicated":
+                configureReplicatedServers(config);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Redisson mode: " + mode);
+        }
+        return Redisson.create(config);
+    }
 
-        // 单机模式配置
+    /**
+     * 单机模式。
+     */
+    private void configureSingleServer(Config config) {
         SingleServerConfig singleServerConfig = config.useSingleServer()
                 .setAddress("redis://" + host + ":" + port)
                 .setDatabase(database)
                 .setTimeout(timeout)
                 .setConnectionPoolSize(connectionPoolSize)
-                .setConnectionMinimumIdleSize(connectionMinimumIdleSize);
+                .setConnectionMinimumIdleSize(connectionMinimumIdleSize)
+                .setSubscriptionConnectionPoolSize(subscriptionConnectionPoolSize);
 
         // 如果配置了密码，则设置密码
         if (StringUtils.hasText(password)) {
             singleServerConfig.setPassword(password);
         }
-
-        return Redisson.create(config);
     }
 
     /**
-     * 配置 Redisson 客户端（集群模式）。
-     * 需要配置 spring.redis.cluster.nodes 属性。
-     *
-     * @param clusterNodes 集群节点列表，格式：host1:port1,host2:port2,...
-     * @return RedissonClient 实例
+     * 集群模式，集群不支持选择 database。
      */
-    // @Bean(destroyMethod = "shutdown")
-    // @ConditionalOnProperty(name = "spring.redis.cluster.nodes")
-    public RedissonClient redissonClusterClient(
-            @Value("${spring.redis.cluster.nodes:}") String clusterNodes) {
-        Config config = new Config();
+    private void configureClusterServers(Config config) {
+        configureMasterSlave(config.useClusterServers()
+                .addNodeAddress(toAddresses(clusterNodes, "Cluster nodes"))
+                .setScanInterval(scanIntervalMillis));
+    }
 
-        String[] nodes = clusterNodes.split(",");
-        String[] addresses = new String[nodes.length];
-        for (int i = 0; i < nodes.length; i++) {
-            addresses[i] = "redis://" + nodes[i].trim();
+    /**
+     * 哨兵模式。
+     */
+    private void configureSentinelServers(Config config) {
+        if (!StringUtils.hasText(sentinelMaster)) {
+            throw new IllegalArgumentException("Sentinel master cannot be null or empty");
         }
+        configureMasterSlave(config.useSentinelServers()
+                .setMasterName(sentinelMaster)
+                .addSentinelAddress(toAddresses(sentinelNodes, "Sentinel nodes"))
+                .setDatabase(database));
+    }
 
-        config.useClusterServers()
-                .addNodeAddress(addresses)
-                .setTimeout(timeout)
+    /**
+     * 主从复制模式。
+     */
+    private void configureReplicatedServers(Config config) {
+        configureMasterSlave(config.useReplicatedServers()
+                .addNodeAddress(toAddresses(replicatedNodes, "Replicated nodes"))
+                .setScanInterval(scanIntervalMillis)
+                .setDatabase(database));
+    }
+
+    /**
+     * 集群、哨兵、主从复制模式共用的超时、连接池与读取方式配置。
+     */
+    private void configureMasterSlave(BaseMasterSlaveServersConfig<?> serversConfig) {
+        serversConfig.setTimeout(timeout)
                 .setMasterConnectionPoolSize(connectionPoolSize)
-                .setMasterConnectionMinimumIdleSize(connectionMinimumIdleSize);
+                .setMasterConnectionMinimumIdleSize(connectionMinimumIdleSize)
+                .setSlaveConnectionPoolSize(slaveConnectionPoolSize)
+                .setSlaveConnectionMinimumIdleSize(slaveConnectionMinimumIdleSize)
+                .setSubscriptionConnectionPoolSize(subscriptionConnectionPoolSize)
+                .setReadMode(readMode);
 
         // 如果配置了密码，则设置密码
         if (StringUtils.hasText(password)) {
-            config.useClusterServers().setPassword(password);
+            serversConfig.setPassword(password);
         }
-
-        return Redisson.create(config);
     }
 
     /**
-     * 配置 Redisson 客户端（哨兵模式）。
-     * 需要配置 spring.redis.sentinel.master 和 spring.redis.sentinel.nodes 属性。
-     *
-     * @param masterName   哨兵主节点名称
-     * @param sentinelNodes 哨兵节点列表，格式：host1:port1,host2:port2,...
-     * @return RedissonClient 实例
+     * 把 host1:port1,host2:port2 格式的节点列表转换为 Redisson 地址，已带协议前缀（如 rediss://）的地址保持不变。
      */
-    // @Bean(destroyMethod = "shutdown")
-    // @ConditionalOnProperty(name = "spring.redis.sentinel.master")
-    public RedissonClient redissonSentinelClient(
-            @Value("${spring.redis.sentinel.master:}") String masterName,
-            @Value("${spring.redis.sentinel.nodes:}") String sentinelNodes) {
-        Config config = new Config();
-
-        String[] nodes = sentinelNodes.split(",");
-        String[] addresses = new String[nodes.length];
-        for (int i = 0; i < nodes.length; i++) {
-            addresses[i] = "redis://" + nodes[i].trim();
+    private static String[] toAddresses(String nodes, String description) {
+        if (!StringUtils.hasText(nodes)) {
+            throw new IllegalArgumentException(description + " cannot be null or empty");
         }
-
-        config.useSentinelServers()
-                .setMasterName(masterName)
-                .addSentinelAddress(addresses)
-                .setDatabase(database)
-                .setTimeout(timeout)
-                .setMasterConnectionPoolSize(connectionPoolSize)
-                .setMasterConnectionMinimumIdleSize(connectionMinimumIdleSize);
-
-        // 如果配置了密码，则设置密码
-        if (StringUtils.hasText(password)) {
-            config.useSentinelServers().setPassword(password);
+        String[] addresses = StringUtils.tokenizeToStringArray(nodes, ",");
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = addresses[i].contains("://") ? addresses[i] : "redis://" + addresses[i];
         }
-
-        return Redisson.create(config);
+        return addresses;
     }
 }
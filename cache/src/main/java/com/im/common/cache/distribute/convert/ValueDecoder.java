@@ -0,0 +1,109 @@
+package com.im.common.cache.distribute.convert;
+
+import com.alibaba.fastjson.JSON;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.IntStream;
+
+/**
+ * 缓存值解码工具类。
+ * 负责将分布式缓存中存储的字符串值反序列化为目标类型，
+ * 批量解码时条目数达到阈值会在有界的线程池中并行执行，避免大批量反序列化拖慢调用线程。
+ */
+public final class ValueDecoder {
+
+    /**
+     * 启用并行解码的最小条目数，小批量时并行调度的开销大于收益。
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * 并行解码线程池的最大并行度。
+     */
+    private static final int MAX_PARALLELISM = 8;
+
+    private ValueDecoder() {
+    }
+
+    /**
+     * 将单个缓存值解码为指定类型。
+     *
+     * @param key   缓存键（用于异常信息）
+     * @param value 缓存中的字符串值
+     * @param type  目标类型
+     * @param <T>   目标泛型类型
+     * @return 解码后的值，value 为 null 时返回 null
+     * @throws RuntimeException 如果反序列化失败
+     */
+    public static <T> T decode(String key, String value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+
+        // 如果目标类型是 String，直接返回
+        if (type == String.class) {
+            return type.cast(value);
+        }
+
+        // 使用 fastjson 反序列化
+        try {
+            return JSON.parseObject(value, type);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize value for key: " + key, e);
+        }
+    }
+
+    /**
+     * 按位置批量解码缓存值。
+     * 返回列表与 values 一一对应，未命中（null）的位置仍为 null。
+     *
+     * @param keys   缓存键列表（与 values 按下标对齐）
+     * @param values 缓存中的字符串值列表
+     * @param type   目标类型
+     * @param <T>    目标泛型类型
+     * @return 解码后的值列表
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> decodeAll(List<String> keys, List<String> values, Class<T> type) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int size = values.size();
+        if (type == String.class) {
+            return (List<T>) new ArrayList<>(values);
+        }
+
+        Object[] decoded = new Object[size];
+        if (size < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                decoded[i] = decode(keys.get(i), values.get(i), type);
+            }
+        } else {
+            // 在专用线程池中执行并行流，避免占用公共 ForkJoinPool
+            DecodePoolHolder.POOL.submit(() -> IntStream.range(0, size).parallel()
+                    .forEach(i -> decoded[i] = decode(keys.get(i), values.get(i), type))).join();
+        }
+        return (List<T>) Arrays.asList(decoded);
+    }
+
+    /**
+     * 并行解码线程池的延迟初始化持有类，只有真正出现大批量解码时才创建线程池。
+     */
+    private static class DecodePoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM)),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("cache-value-decoder-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null, false);
+    }
+}
@@ -1,16 +1,29 @@
 package com.im.common.cache.distribute.impl;
-import com.alibaba.fastjson.JSON;
 import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.distribute.convert.ValueDecoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * 基于 Redis 的分布式缓存实现。
@@ -27,7 +40,56 @@ public class RedisCache implements DistributedCache {
     /**
      * 逻辑过期时间的键后缀。
      */
-    private static final String LOGICAL_EXPIRE_SUFFIX = ":logical_expire";
+    static final String LOGICAL_EXPIRE_SUFFIX = ":logical_expire";
+
+    /**
+     * 单次脚本调用处理的最大 key 数量，避免单个脚本长时间阻塞 Redis。
+     */
+    static final int SET_IF_GREATER_BATCH_SIZE = 500;
+
+    /**
+     * “大于当前值才写入”的 Lua 脚本源码，KEYS 与 ARGV 按下标一一对应，返回实际写入的数量。
+     * Lua 的数字是双精度浮点数，雪花 ID（约 2^58）相邻 64 以内的值会比较为相等，
+     * 因此按十进制整数字符串比较：先比较符号，再比较长度，长度相同时按字典序比较。
+     */
+    static final String SET_IF_GREATER_LUA =
+            "local function greater(a, b)\n" +
+            "  local na = string.sub(a, 1, 1) == '-'\n" +
+            "  local nb = string.sub(b, 1, 1) == '-'\n" +
+            "  if na ~= nb then return nb end\n" +
+            "  if na then\n" +
+            "    a, b = string.sub(b, 2), string.sub(a, 2)\n" +
+            "  end\n" +
+            "  if #a ~= #b then return #a > #b end\n" +
+            "  return a > b\n" +
+            "end\n" +
+            "local updated = 0\n" +
+            "for i = 1, #KEYS do\n" +
+            "  local current = redis.call('GET', KEYS[i])\n" +
+            "  if (not current) or greater(ARGV[i], current) then\n" +
+            "    redis.call('SET', KEYS[i], ARGV[i])\n" +
+            "    updated = updated + 1\n" +
+            "  end\n" +
+            "end\n" +
+            "return updated";
+
+    private static final RedisScript<Long> SET_IF_GREATER_SCRIPT = new DefaultRedisScript<>(SET_IF_GREATER_LUA, Long.class);
+
+    /**
+     * “等于期望值才删除”的 Lua 脚本源码，返回删除的数量。
+     */
+    static final String DELETE_IF_EQUALS_LUA =
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  return redis.call('DEL', KEYS[1])\n" +
+            "end\n" +
+            "return 0";
+
+    private static final RedisScript<Long> DELETE_IF_EQUALS_SCRIPT = new DefaultRedisScript<>(DELETE_IF_EQUALS_LUA, Long.class);
+
+    /**
+     * 是否连接 Redis Cluster，首次批量脚本调用时从连接类型判断。
+     */
+    private volatile Boolean cluster;
 
     @Override
     public void set(String key, Object value) {
@@ -62,6 +124,115 @@ public class RedisCache implements DistributedCache {
         return result != null && result;
     }
 
+    @Override
+    public void batchSet(Map<String, ?> values, Duration ttl) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        boolean withTtl = ttl != null && !ttl.isZero() && !ttl.isNegative();
+
+        // 使用管道批量写入，减少网络往返
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                if (!StringUtils.hasText(entry.getKey())) {
+                    continue;
+                }
+                String value = this.getValue(entry.getValue());
+                if (withTtl) {
+                    stringConnection.pSetEx(entry.getKey(), ttl.toMillis(), value);
+                } else {
+                    stringConnection.set(entry.getKey(), value);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void batchExpire(Collection<String> keys, Duration ttl) {
+        if (keys == null || keys.isEmpty() || ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+
+        // 使用管道批量设置过期时间，减少网络往返
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String key : keys) {
+                if (StringUtils.hasText(key)) {
+                    stringConnection.pExpire(key, ttl.toMillis());
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean setIfGreater(String key, long value) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        Long updated = stringRedisTemplate.execute(SET_IF_GREATER_SCRIPT,
+                Collections.singletonList(key), String.valueOf(value));
+        return updated != null && updated > 0;
+    }
+
+    /**
+     * 按脚本批次拆分执行。集群模式下同一脚本的键必须位于同一槽位，因此先按槽位分组。
+     */
+    @Override
+    public long batchSetIfGreater(Map<String, Long> values) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+
+        boolean groupBySlot = isCluster();
+        Map<Integer, List<Map.Entry<String, Long>>> groups = new HashMap<>();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!StringUtils.hasText(entry.getKey()) || entry.getValue() == null) {
+                continue;
+            }
+            int slot = groupBySlot ? ClusterSlotHashUtil.calculateSlot(entry.getKey()) : 0;
+            groups.computeIfAbsent(slot, s -> new ArrayList<>()).add(entry);
+        }
+
+        long updated = 0;
+        for (List<Map.Entry<String, Long>> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += SET_IF_GREATER_BATCH_SIZE) {
+                List<Map.Entry<String, Long>> chunk = group.subList(from,
+                        Math.min(from + SET_IF_GREATER_BATCH_SIZE, group.size()));
+                List<String> keys = new ArrayList<>(chunk.size());
+                List<String> args = new ArrayList<>(chunk.size());
+                for (Map.Entry<String, Long> entry : chunk) {
+                    keys.add(entry.getKey());
+                    args.add(String.valueOf(entry.getValue()));
+                }
+                updated += executeSetIfGreater(keys, args);
+            }
+        }
+        return updated;
+    }
+
+    private boolean isCluster() {
+        Boolean result = cluster;
+        if (result == null) {
+            RedisConnectionFactory connectionFactory = stringRedisTemplate.getConnectionFactory();
+            if (connectionFactory == null) {
+                return false;
+            }
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                result = connection instanceof RedisClusterConnection;
+            }
+            cluster = result;
+        }
+        return result;
+    }
+
+    private long executeSetIfGreater(List<String> keys, List<String> args) {
+        Long updated = stringRedisTemplate.execute(SET_IF_GREATER_SCRIPT, keys, args.toArray());
+        return updated != null ? updated : 0;
+    }
+
     @Override
     public void setWithLogicalExpire(String key, String value, Duration logicalExpire) {
         if (!StringUtils.hasText(key)) {
@@ -98,57 +269,97 @@ public class RedisCache implements DistributedCache {
             throw new IllegalArgumentException("Type cannot be null");
         }
 
-        String value = getString(key);
-        if (value == null) {
-            return null;
-        }
+        return ValueDecoder.decode(key, getString(key), type);
+    }
 
-        // 如果目标类型是 String，直接返回
-        if (type == String.class) {
-            return type.cast(value);
+    @Override
+    public Map<String, String> batchGet(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return toHitMap(keys, multiGetAligned(keys));
+    }
 
-        // 使用 fastjson 反序列化
-        try {
-            return JSON.parseObject(value, type);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize value for key: " + key, e);
+    @Override
+    public <T> Map<String, T> batchGet(List<String> keys, Class<T> type) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
         }
+        return toHitMap(keys, batchGetList(keys, type));
     }
 
     @Override
-    public Map<String, String> batchGet(List<String> keys) {
+    public <T> List<T> batchGetList(List<String> keys, Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
         if (keys == null || keys.isEmpty()) {
-            return Collections.emptyMap();
+            return Collections.emptyList();
         }
+        return ValueDecoder.decodeAll(keys, multiGetAligned(keys), type);
+    }
 
+    /**
+     * 批量获取值，返回结果与 keys 按下标对齐。
+     * 空键不参与 MGET，对应位置为 null。
+     *
+     * @param keys 缓存键列表
+     * @return 与 keys 等长的值列表
+     */
+    private List<String> multiGetAligned(List<String> keys) {
         // 过滤掉空键
-        List<String> validKeys = new ArrayList<>();
+        List<String> validKeys = new ArrayList<>(keys.size());
         for (String key : keys) {
             if (StringUtils.hasText(key)) {
                 validKeys.add(key);
             }
         }
 
-        if (validKeys.isEmpty()) {
-            return Collections.emptyMap();
+        List<String> values = validKeys.isEmpty() ? null : stringRedisTemplate.opsForValue().multiGet(validKeys);
+        if (values != null && validKeys.size() == keys.size()) {
+            return values;
         }
 
-        // 批量获取值
-        List<String> values = stringRedisTemplate.opsForValue().multiGet(validKeys);
-        if (values == null) {
+        // 存在空键或未取到结果时，按原始下标回填
+        List<String> aligned = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (values != null) {
+            for (int i = 0, j = 0; i < keys.size(); i++) {
+                if (StringUtils.hasText(keys.get(i))) {
+                    aligned.set(i, values.get(j++));
+                }
+            }
+        }
+        return aligned;
+    }
+
+    /**
+     * 将按下标对齐的结果转换为只包含命中项的映射。
+     * 先统计命中数再按容量预分配，避免 HashMap 反复扩容。
+     *
+     * @param keys   缓存键列表
+     * @param values 与 keys 对齐的值列表
+     * @param <T>    值的类型
+     * @return 键到值的映射
+     */
+    private <T> Map<String, T> toHitMap(List<String> keys, List<T> values) {
+        int hits = 0;
+        for (T value : values) {
+            if (value != null) {
+                hits++;
+            }
+        }
+        if (hits == 0) {
             return Collections.emptyMap();
         }
 
         // 构建结果映射（只包含非空值）
-        Map<String, String> result = new HashMap<>();
-        for (int i = 0; i < validKeys.size(); i++) {
-            String value = values.get(i);
+        Map<String, T> result = new HashMap<>((int) (hits / 0.75f) + 1);
+        for (int i = 0; i < keys.size(); i++) {
+            T value = values.get(i);
             if (value != null) {
-                result.put(validKeys.get(i), value);
+                result.put(keys.get(i), value);
             }
         }
-
         return result;
     }
 
@@ -162,6 +373,112 @@ public class RedisCache implements DistributedCache {
         return keys != null ? keys : Collections.emptySet();
     }
 
+    /**
+     * 集群模式下依次扫描每个主节点，单机模式使用连接上的游标。
+     */
+    @Override
+    public long scan(String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        ScanOptions options = scanOptions(pattern, batchSize);
+        if (!isCluster()) {
+            Long scanned = stringRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    consume(connection.scan(options), batchSize, batchConsumer));
+            return scanned != null ? scanned : 0L;
+        }
+
+        long total = 0;
+        boolean[] stopped = {false};
+        Predicate<List<String>> tracking = batch -> {
+            boolean more = batchConsumer.test(batch);
+            stopped[0] = !more;
+            return more;
+        };
+        for (RedisClusterNode master : masters()) {
+            total += scanNode(master, options, batchSize, tracking);
+            if (stopped[0]) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 集群模式下每个主节点是一个分区，按节点 ID 排序；单机模式只有一个分区。
+     */
+    @Override
+    public int scanPartitions() {
+        return isCluster() ? masters().size() : 1;
+    }
+
+    @Override
+    public long scan(int partition, String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        if (!isCluster()) {
+            return DistributedCache.super.scan(partition, pattern, batchSize, batchConsumer);
+        }
+        ScanOptions options = scanOptions(pattern, batchSize);
+        List<RedisClusterNode> masters = masters();
+        if (partition < 0 || partition >= masters.size()) {
+            throw new IllegalArgumentException("Scan partition out of range: " + partition);
+        }
+        return scanNode(masters.get(partition), options, batchSize, batchConsumer);
+    }
+
+    private ScanOptions scanOptions(String pattern, int batchSize) {
+        if (!StringUtils.hasText(pattern)) {
+            throw new IllegalArgumentException("Pattern cannot be null or empty");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        return ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+    }
+
+    /**
+     * 当前集群拓扑中的主节点，按节点 ID 排序，作为扫描分区的编号顺序。
+     */
+    private List<RedisClusterNode> masters() {
+        List<RedisClusterNode> masters = new ArrayList<>();
+        try (RedisClusterConnection connection = stringRedisTemplate.getRequiredConnectionFactory().getClusterConnection()) {
+            for (RedisClusterNode node : connection.clusterGetNodes()) {
+                if (node.isMaster()) {
+                    masters.add(node);
+                }
+            }
+        }
+        masters.sort(Comparator.comparing(RedisClusterNode::getId));
+        return masters;
+    }
+
+    private long scanNode(RedisClusterNode node, ScanOptions options, int batchSize, Predicate<List<String>> batchConsumer) {
+        try (RedisClusterConnection connection = stringRedisTemplate.getRequiredConnectionFactory().getClusterConnection()) {
+            return consume(connection.scan(node, options), batchSize, batchConsumer);
+        }
+    }
+
+    /**
+     * 从游标中按批读取键交给 batchConsumer，读取完毕或 batchConsumer 返回 false 时关闭游标。
+     */
+    private static long consume(Cursor<byte[]> keys, int batchSize, Predicate<List<String>> batchConsumer) {
+        long total = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<byte[]> cursor = keys) {
+            while (cursor.hasNext()) {
+                batch.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                if (batch.size() == batchSize) {
+                    total += batch.size();
+                    if (!batchConsumer.test(batch)) {
+                        return total;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += batch.size();
+            batchConsumer.test(batch);
+        }
+        return total;
+    }
+
     @Override
     public boolean delete(String key) {
         if (!StringUtils.hasText(key)) {
@@ -177,6 +494,19 @@ public class RedisCache implements DistributedCache {
         return result != null && result;
     }
 
+    @Override
+    public boolean deleteIfEquals(String key, Object expected) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (expected == null) {
+            throw new IllegalArgumentException("Expected value cannot be null");
+        }
+        Long deleted = stringRedisTemplate.execute(DELETE_IF_EQUALS_SCRIPT,
+                Collections.singletonList(key), this.getValue(expected));
+        return deleted != null && deleted > 0;
+    }
+
     /**
      * 检查逻辑过期时间是否已过期。
      *
@@ -0,0 +1,418 @@
+package com.im.common.cache.distribute.impl;
+import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.distribute.convert.ValueDecoder;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 基于 Redisson 的分布式缓存实现。
+ * 与 {@link RedisCache} 使用相同的数据格式（字符串值，复杂类型为 JSON），两者可以读写同一份数据；
+ * 与 Redisson 分布式锁共用同一个 RedissonClient 及其连接池，不再额外创建 Lettuce 连接池。
+ * 批量读写使用 RBuckets（MGET/MSET），其余批量操作通过 RBatch 以管道方式一次发送；
+ * 集群模式下 Redisson 按槽位拆分批量命令。
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.distributed.type=redisson 时启用此实现（同时会加载 RedissonConfig）。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.distributed.type", havingValue = "redisson")
+public class RedissonCache implements DistributedCache {
+
+    private final RedissonClient redissonClient;
+
+    public RedissonCache(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        redissonClient.getBucket(key, StringCodec.INSTANCE).set(this.getValue(value));
+    }
+
+    @Override
+    public void set(String key, Object value, Duration ttl) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            // 如果 TTL 无效，使用不带过期时间的 set
+            set(key, value);
+            return;
+        }
+        redissonClient.getBucket(key, StringCodec.INSTANCE).set(this.getValue(value), ttl);
+    }
+
+    @Override
+    public boolean expire(String key, Duration ttl) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return false;
+        }
+        return redissonClient.getBucket(key, StringCodec.INSTANCE).expire(ttl);
+    }
+
+    @Override
+    public void batchSet(Map<String, ?> values, Duration ttl) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        boolean withTtl = ttl != null && !ttl.isZero() && !ttl.isNegative();
+
+        if (!withTtl) {
+            // 不带过期时间时使用 MSET
+            Map<String, String> encoded = new HashMap<>((int) (values.size() / 0.75f) + 1);
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                if (StringUtils.hasText(entry.getKey())) {
+                    encoded.put(entry.getKey(), this.getValue(entry.getValue()));
+                }
+            }
+            if (!encoded.isEmpty()) {
+                redissonClient.getBuckets(StringCodec.INSTANCE).set(encoded);
+            }
+            return;
+        }
+
+        // 带过期时间时使用管道批量 PSETEX，减少网络往返
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults().skipResult());
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (StringUtils.hasText(entry.getKey())) {
+                batch.getBucket(entry.getKey(), StringCodec.INSTANCE).setAsync(this.getValue(entry.getValue()), ttl);
+            }
+        }
+        batch.execute();
+    }
+
+    @Override
+    public void batchExpire(Collection<String> keys, Duration ttl) {
+        if (keys == null || keys.isEmpty() || ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+
+        // 使用管道批量设置过期时间，减少网络往返
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults().skipResult());
+        for (String key : keys) {
+            if (StringUtils.hasText(key)) {
+                batch.getBucket(key, StringCodec.INSTANCE).expireAsync(ttl);
+            }
+        }
+        batch.execute();
+    }
+
+    @Override
+    public boolean setIfGreater(String key, long value) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        Long updated = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                RedisCache.SET_IF_GREATER_LUA, RScript.ReturnType.INTEGER,
+                Collections.singletonList(key), String.valueOf(value));
+        return updated != null && updated > 0;
+    }
+
+    /**
+     * 按脚本批次拆分后通过 RBatch 一次发送。集群模式下同一脚本的键必须位于同一槽位，因此先按槽位分组，
+     * 槽位在本地按 CRC16 与哈希标签规则计算，不访问 Redis。
+     */
+    @Override
+    public long batchSetIfGreater(Map<String, Long> values) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+
+        boolean cluster = redissonClient.getConfig().isClusterConfig();
+        Map<Integer, List<Map.Entry<String, Long>>> groups = new HashMap<>();
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (!StringUtils.hasText(entry.getKey()) || entry.getValue() == null) {
+                continue;
+            }
+            int slot = cluster ? ClusterSlotHashUtil.calculateSlot(entry.getKey()) : 0;
+            groups.computeIfAbsent(slot, s -> new ArrayList<>()).add(entry);
+        }
+        if (groups.isEmpty()) {
+            return 0;
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        List<RFuture<Long>> futures = new ArrayList<>();
+        for (List<Map.Entry<String, Long>> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += RedisCache.SET_IF_GREATER_BATCH_SIZE) {
+                List<Map.Entry<String, Long>> chunk = group.subList(from,
+                        Math.min(from + RedisCache.SET_IF_GREATER_BATCH_SIZE, group.size()));
+                List<Object> keys = new ArrayList<>(chunk.size());
+                Object[] args = new Object[chunk.size()];
+                for (int i = 0; i < chunk.size(); i++) {
+                    keys.add(chunk.get(i).getKey());
+                    args[i] = String.valueOf(chunk.get(i).getValue());
+                }
+                futures.add(batch.getScript(StringCodec.INSTANCE).evalAsync(RScript.Mode.READ_WRITE,
+                        RedisCache.SET_IF_GREATER_LUA, RScript.ReturnType.INTEGER, keys, args));
+            }
+        }
+        batch.execute();
+
+        long updated = 0;
+        for (RFuture<Long> future : futures) {
+            Long count = future.toCompletableFuture().join();
+            updated += count != null ? count : 0;
+        }
+        return updated;
+    }
+
+    @Override
+    public void setWithLogicalExpire(String key, String value, Duration logicalExpire) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (logicalExpire == null || logicalExpire.isZero() || logicalExpire.isNegative()) {
+            // 如果逻辑过期时间无效，直接设置值
+            set(key, value);
+            return;
+        }
+
+        // 计算逻辑过期时间戳（当前时间 + 逻辑过期时长）
+        long logicalExpireTime = Instant.now().toEpochMilli() + logicalExpire.toMillis();
+
+        // 将值和逻辑过期时间一起存储
+        Map<String, String> entries = new HashMap<>(4);
+        entries.put(key, value);
+        entries.put(key + RedisCache.LOGICAL_EXPIRE_SUFFIX, String.valueOf(logicalExpireTime));
+        redissonClient.getBuckets(StringCodec.INSTANCE).set(entries);
+    }
+
+    @Override
+    public String getString(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        return redissonClient.<String>getBucket(key, StringCodec.INSTANCE).get();
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+
+        return ValueDecoder.decode(key, getString(key), type);
+    }
+
+    @Override
+    public Map<String, String> batchGet(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return multiGet(keys);
+    }
+
+    @Override
+    public <T> Map<String, T> batchGet(List<String> keys, Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> hits = multiGet(keys);
+        if (hits.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> hitKeys = new ArrayList<>(hits.keySet());
+        List<String> hitValues = new ArrayList<>(hitKeys.size());
+        for (String key : hitKeys) {
+            hitValues.add(hits.get(key));
+        }
+        List<T> decoded = ValueDecoder.decodeAll(hitKeys, hitValues, type);
+        Map<String, T> result = new HashMap<>((int) (hitKeys.size() / 0.75f) + 1);
+        for (int i = 0; i < hitKeys.size(); i++) {
+            if (decoded.get(i) != null) {
+                result.put(hitKeys.get(i), decoded.get(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <T> List<T> batchGetList(List<String> keys, Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 按原始下标对齐，未命中与空键的位置为 null
+        Map<String, String> hits = multiGet(keys);
+        List<String> aligned = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            aligned.add(key != null ? hits.get(key) : null);
+        }
+        return ValueDecoder.decodeAll(keys, aligned, type);
+    }
+
+    /**
+     * 通过 RBuckets 批量获取值（MGET），只返回命中项，空键不参与查询。
+     *
+     * @param keys 缓存键列表
+     * @return 键到值的映射
+     */
+    private Map<String, String> multiGet(List<String> keys) {
+        List<String> validKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (StringUtils.hasText(key)) {
+                validKeys.add(key);
+            }
+        }
+        if (validKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> values = redissonClient.getBuckets(StringCodec.INSTANCE).get(validKeys.toArray(new String[0]));
+        return values != null ? values : Collections.emptyMap();
+    }
+
+    /**
+     * 以 SCAN 方式匹配键，不会像 KEYS 一样阻塞 Redis。
+     */
+    @Override
+    public Set<String> getKeysByPattern(String regex) {
+        if (!StringUtils.hasText(regex)) {
+            throw new IllegalArgumentException("Regex pattern cannot be null or empty");
+        }
+
+        Set<String> keys = new HashSet<>();
+        for (String key : redissonClient.getKeys().getKeysByPattern(regex)) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    @Override
+    public long scan(String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        if (!StringUtils.hasText(pattern)) {
+            throw new IllegalArgumentException("Pattern cannot be null or empty");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        long total = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Stream<String> keys = redissonClient.getKeys().getKeysStreamByPattern(pattern, batchSize)) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    total += batch.size();
+                    if (!batchConsumer.test(batch)) {
+                        return total;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += batch.size();
+            batchConsumer.test(batch);
+        }
+        return total;
+    }
+
+    @Override
+    public boolean delete(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+
+        // 同时删除逻辑过期时间键（如果存在），一次往返
+        RBatch batch = redissonClient.createBatch();
+        RFuture<Boolean> deleted = batch.getBucket(key, StringCodec.INSTANCE).deleteAsync();
+        batch.getBucket(key + RedisCache.LOGICAL_EXPIRE_SUFFIX, StringCodec.INSTANCE).deleteAsync();
+        batch.execute();
+        return Boolean.TRUE.equals(deleted.toCompletableFuture().join());
+    }
+
+    @Override
+    public boolean deleteIfEquals(String key, Object expected) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (expected == null) {
+            throw new IllegalArgumentException("Expected value cannot be null");
+        }
+        Long deleted = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                RedisCache.DELETE_IF_EQUALS_LUA, RScript.ReturnType.INTEGER,
+                Collections.singletonList(key), this.getValue(expected));
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * 检查逻辑过期时间是否已过期。
+     *
+     * @param key 缓存键
+     * @return 如果已过期返回 true，否则返回 false
+     */
+    public boolean isLogicalExpired(String key) {
+        if (!StringUtils.hasText(key)) {
+            return true;
+        }
+
+        String expireTimeStr = getString(key + RedisCache.LOGICAL_EXPIRE_SUFFIX);
+        if (expireTimeStr == null) {
+            // 没有设置逻辑过期时间，认为未过期
+            return false;
+        }
+
+        try {
+            long expireTime = Long.parseLong(expireTimeStr);
+            return Instant.now().toEpochMilli() > expireTime;
+        } catch (NumberFormatException e) {
+            // 解析失败，认为已过期
+            return true;
+        }
+    }
+
+    /**
+     * 获取逻辑过期时间戳。
+     *
+     * @param key 缓存键
+     * @return 逻辑过期时间戳（毫秒），如果不存在返回 null
+     */
+    public Long getLogicalExpireTime(String key) {
+        if (!StringUtils.hasText(key)) {
+            return null;
+        }
+
+        String expireTimeStr = getString(key + RedisCache.LOGICAL_EXPIRE_SUFFIX);
+        if (expireTimeStr == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(expireTimeStr);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
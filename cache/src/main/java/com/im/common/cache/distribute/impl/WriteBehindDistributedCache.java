@@ -0,0 +1,461 @@
+package com.im.common.cache.distribute.impl;
+
+import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.distribute.convert.ValueDecoder;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 写回（write-behind）合并写入的分布式缓存装饰器。
+ * 适用于心跳、在线状态续期、最后活跃时间等同一 key 被频繁覆盖写入的场景：
+ * 写入先按 key 缓冲在本地（后写覆盖先写），再按条数或时间间隔以管道批量刷新到被装饰的缓存，
+ * 使 Redis 写入 QPS 与不同 key 的数量成正比，而不是与事件数量成正比。
+ *
+ * <p>读取会优先返回本地尚未刷新的值；{@link #getKeysByPattern(String)} 不包含尚未刷新的新 key。
+ * 删除和逻辑过期写入会丢弃该 key 的缓冲并直接写穿，与刷新互斥执行，
+ * 避免刷新中已取出的旧值在删除或覆盖之后再写回；“大于当前值才写入”直接写穿，不经过缓冲。</p>
+ *
+ * <p>该类不是 Spring 组件，使用方可将其声明为 @Bean，容器关闭时会调用 {@link #close()} 刷新剩余写入：</p>
+ * <pre>
+ * &#64;Bean
+ * public WriteBehindDistributedCache heartbeatCache(DistributedCache distributedCache) {
+ *     return new WriteBehindDistributedCache(distributedCache, 500, Duration.ofSeconds(1));
+ * }
+ * </pre>
+ */
+public final class WriteBehindDistributedCache implements DistributedCache, AutoCloseable {
+
+    /**
+     * 被装饰的分布式缓存。
+     */
+    private final DistributedCache delegate;
+
+    /**
+     * 单批刷新的最大条数，缓冲条数达到该值时立即触发刷新。
+     */
+    private final int maxBatchSize;
+
+    /**
+     * 按 key 缓冲的待写入数据。
+     */
+    private final ConcurrentHashMap<String, PendingWrite> buffer = new ConcurrentHashMap<>();
+
+    /**
+     * 刷新线程。
+     */
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * 是否已提交一次按条数触发的刷新，避免重复提交。
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * 保证同一时刻只有一个刷新在执行。
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean closed;
+
+    /**
+     * 构造函数。
+     *
+     * @param delegate      被装饰的分布式缓存
+     * @param maxBatchSize  单批刷新的最大条数
+     * @param flushInterval 定时刷新的间隔
+     * @throws IllegalArgumentException 如果参数不合法
+     */
+    public WriteBehindDistributedCache(DistributedCache delegate, int maxBatchSize, Duration flushInterval) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cache cannot be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        if (flushInterval == null || flushInterval.isZero() || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        set(key, value, null);
+    }
+
+    @Override
+    public void set(String key, Object value, Duration ttl) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (closed) {
+            delegate.set(key, value, ttl);
+            return;
+        }
+        buffer.put(key, new PendingWrite(this.getValue(value), validTtl(ttl)));
+        afterBuffered();
+    }
+
+    /**
+     * 缓冲过期时间的设置。
+     * 若该 key 已有待写入的值，则与该值合并为一次带 TTL 的写入。
+     * 由于写入是异步的，返回 true 仅表示已接受，不代表 key 一定存在。
+     */
+    @Override
+    public boolean expire(String key, Duration ttl) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        Duration validTtl = validTtl(ttl);
+        if (validTtl == null) {
+            return false;
+        }
+        if (closed) {
+            return delegate.expire(key, validTtl);
+        }
+        buffer.merge(key, new PendingWrite(null, validTtl),
+                (old, expireOnly) -> old.value != null ? new PendingWrite(old.value, validTtl) : expireOnly);
+        afterBuffered();
+        return true;
+    }
+
+    @Override
+    public void batchSet(Map<String, ?> values, Duration ttl) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue(), ttl);
+        }
+    }
+
+    @Override
+    public void batchExpire(Collection<String> keys, Duration ttl) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        for (String key : keys) {
+            expire(key, ttl);
+        }
+    }
+
+    @Override
+    public boolean setIfGreater(String key, long value) {
+        return delegate.setIfGreater(key, value);
+    }
+
+    @Override
+    public long batchSetIfGreater(Map<String, Long> values) {
+        return delegate.batchSetIfGreater(values);
+    }
+
+    @Override
+    public void setWithLogicalExpire(String key, String value, Duration logicalExpire) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        flushLock.lock();
+        try {
+            buffer.remove(key);
+            delegate.setWithLogicalExpire(key, value, logicalExpire);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public String getString(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        PendingWrite pending = buffer.get(key);
+        if (pending != null && pending.value != null) {
+            return pending.value;
+        }
+        return delegate.getString(key);
+    }
+
+    @Override
+    public <T> T get(String key, Class<T> type) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        PendingWrite pending = buffer.get(key);
+        if (pending != null && pending.value != null) {
+            if (type == null) {
+                throw new IllegalArgumentException("Type cannot be null");
+            }
+            return ValueDecoder.decode(key, pending.value, type);
+        }
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public Map<String, String> batchGet(List<String> keys) {
+        return overlay(keys, delegate.batchGet(keys), String.class);
+    }
+
+    @Override
+    public <T> Map<String, T> batchGet(List<String> keys, Class<T> type) {
+        return overlay(keys, delegate.batchGet(keys, type), type);
+    }
+
+    @Override
+    public <T> List<T> batchGetList(List<String> keys, Class<T> type) {
+        List<T> values = delegate.batchGetList(keys, type);
+        if (buffer.isEmpty() || values.isEmpty()) {
+            return values;
+        }
+
+        List<T> result = null;
+        for (int i = 0; i < keys.size(); i++) {
+            PendingWrite pending = keys.get(i) != null ? buffer.get(keys.get(i)) : null;
+            if (pending != null && pending.value != null) {
+                if (result == null) {
+                    result = new ArrayList<>(values);
+                }
+                result.set(i, ValueDecoder.decode(keys.get(i), pending.value, type));
+            }
+        }
+        return result != null ? result : values;
+    }
+
+    @Override
+    public Set<String> getKeysByPattern(String regex) {
+        return delegate.getKeysByPattern(regex);
+    }
+
+    @Override
+    public long scan(String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        return delegate.scan(pattern, batchSize, batchConsumer);
+    }
+
+    @Override
+    public int scanPartitions() {
+        return delegate.scanPartitions();
+    }
+
+    @Override
+    public long scan(int partition, String pattern, int batchSize, Predicate<List<String>> batchConsumer) {
+        return delegate.scan(partition, pattern, batchSize, batchConsumer);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        flushLock.lock();
+        try {
+            buffer.remove(key);
+            return delegate.delete(key);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 比较的是该 key 的最新值：存在尚未刷新的值时与其比较，相等则丢弃缓冲并删除；否则交给被装饰的缓存比较删除。
+     */
+    @Override
+    public boolean deleteIfEquals(String key, Object expected) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (expected == null) {
+            throw new IllegalArgumentException("Expected value cannot be null");
+        }
+        flushLock.lock();
+        try {
+            PendingWrite pending = buffer.get(key);
+            if (pending != null && pending.value != null) {
+                if (!pending.value.equals(this.getValue(expected))) {
+                    return false;
+                }
+                buffer.remove(key);
+                delegate.delete(key);
+                return true;
+            }
+            if (delegate.deleteIfEquals(key, expected)) {
+                buffer.remove(key);
+                return true;
+            }
+            return false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 立即将缓冲的写入刷新到被装饰的缓存。
+     * 每批最多 maxBatchSize 条，同一批内按 TTL 分组，以管道方式写入。
+     * 刷新成功的 key 仅在期间未被再次写入时才从缓冲中移除，保证后写覆盖先写；刷新失败的写入保留到下次重试。
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (buffer.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<String, PendingWrite>> batch = new ArrayList<>(Math.min(buffer.size(), maxBatchSize));
+            for (Map.Entry<String, PendingWrite> entry : buffer.entrySet()) {
+                batch.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+                if (batch.size() >= maxBatchSize) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前缓冲中待写入的 key 数量。
+     *
+     * @return 待写入的 key 数量
+     */
+    public long pendingSize() {
+        return buffer.mappingCount();
+    }
+
+    /**
+     * 停止定时刷新并刷新剩余写入，之后的写入将直接写穿到被装饰的缓存。
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void writeBatch(List<Map.Entry<String, PendingWrite>> batch) {
+        // 按 TTL 分组，同一 TTL 的写入合并为一次管道请求
+        Map<Duration, Map<String, String>> valuesByTtl = new HashMap<>();
+        Map<Duration, List<String>> expiresByTtl = new HashMap<>();
+        for (Map.Entry<String, PendingWrite> entry : batch) {
+            PendingWrite pending = entry.getValue();
+            if (pending.value != null) {
+                valuesByTtl.computeIfAbsent(pending.ttl, k -> new HashMap<>()).put(entry.getKey(), pending.value);
+            } else {
+                expiresByTtl.computeIfAbsent(pending.ttl, k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        for (Map.Entry<Duration, Map<String, String>> entry : valuesByTtl.entrySet()) {
+            delegate.batchSet(entry.getValue(), entry.getKey());
+        }
+        for (Map.Entry<Duration, List<String>> entry : expiresByTtl.entrySet()) {
+            delegate.batchExpire(entry.getValue(), entry.getKey());
+        }
+
+        // 只移除刷新期间未被覆盖的写入
+        for (Map.Entry<String, PendingWrite> entry : batch) {
+            buffer.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            // 记录异常日志，未刷新的写入保留到下次重试
+            System.err.println("Failed to flush write-behind cache, pending: " + buffer.mappingCount() + ", error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 写入缓冲之后调用。写入可能在通过 closed 检查之后、close() 的最后一次刷新完成之后才进入缓冲，
+     * 此时由写入线程自行刷新，否则该写入不会再被刷新。
+     */
+    private void afterBuffered() {
+        if (closed) {
+            flush();
+            return;
+        }
+        requestFlushIfFull();
+    }
+
+    private void requestFlushIfFull() {
+        if (buffer.mappingCount() >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // 刷新线程已关闭，由写入线程直接写穿
+                flushRequested.set(false);
+                flush();
+            }
+        }
+    }
+
+    private Duration validTtl(Duration ttl) {
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+
+    private <T> Map<String, T> overlay(List<String> keys, Map<String, T> values, Class<T> type) {
+        if (buffer.isEmpty() || keys == null) {
+            return values;
+        }
+
+        Map<String, T> result = null;
+        for (String key : keys) {
+            PendingWrite pending = key != null ? buffer.get(key) : null;
+            if (pending != null && pending.value != null) {
+                if (result == null) {
+                    result = new HashMap<>(values);
+                }
+                result.put(key, ValueDecoder.decode(key, pending.value, type));
+            }
+        }
+        return result != null ? result : values;
+    }
+
+    /**
+     * 待写入的数据。
+     * value 为 null 表示只需设置过期时间；ttl 为 null 表示不设置过期时间。
+     * 不重写 equals，刷新后按实例身份判断是否被覆盖。
+     */
+    private static final class PendingWrite {
+        private final String value;
+        private final Duration ttl;
+
+        private PendingWrite(String value, Duration ttl) {
+            this.value = value;
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.im.common.cache.limit;
+
+/**
+ * 分布式限流器接口。
+ * 基于令牌桶算法，在集群范围内限制同一限流对象（如用户 ID）的请求速率。
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试获取一个令牌（非阻塞）。
+     *
+     * @param key 限流对象标识，如用户 ID
+     * @return 获取成功返回 true，被限流返回 false
+     * @throws IllegalArgumentException 如果 key 为 null 或空字符串
+     */
+    boolean tryAcquire(String key);
+
+    /**
+     * 尝试获取指定数量的令牌（非阻塞）。
+     *
+     * @param key     限流对象标识，如用户 ID
+     * @param permits 令牌数量
+     * @return 获取成功返回 true，被限流返回 false
+     * @throws IllegalArgumentException 如果 key 为 null 或空字符串，或 permits 不为正数
+     */
+    boolean tryAcquire(String key, int permits);
+
+    /**
+     * 获取限流器的名称。
+     *
+     * @return 限流器名称
+     */
+    String getName();
+}
@@ -0,0 +1,28 @@
+package com.im.common.cache.limit;
+
+/**
+ * 分布式限流器工厂接口。
+ * 定义获取限流器实例的方法，同名限流器在工厂内只创建一次。
+ */
+public interface RateLimiterFactory {
+
+    /**
+     * 获取限流器实例。
+     * 同名限流器只在第一次获取时按给定参数创建，之后的调用返回同一个实例。
+     *
+     * @param name            限流器名称，如 "send_message"、"login"
+     * @param capacity        令牌桶容量，即允许的最大突发请求数
+     * @param refillPerSecond 每秒补充的令牌数
+     * @return RateLimiter 实例
+     * @throws IllegalArgumentException 如果 name 为 null 或空字符串，或 capacity、refillPerSecond 不为正数
+     */
+    RateLimiter getRateLimiter(String name, long capacity, double refillPerSecond);
+
+    /**
+     * 获取工厂的名称。
+     * 用于标识该工厂的实现类型（如 "redis" 等）。
+     *
+     * @return 工厂名称
+     */
+    String getFactoryName();
+}
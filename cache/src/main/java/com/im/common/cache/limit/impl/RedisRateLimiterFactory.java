@@ -0,0 +1,337 @@
+package com.im.common.cache.limit.impl;
+
+import com.im.common.cache.limit.RateLimiter;
+import com.im.common.cache.limit.RateLimiterFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 Redis 的分布式限流器工厂实现类。
+ * 令牌桶保存在 Redis 中并由 Lua 脚本原子扣减，但每个节点一次租借一小批令牌缓存在本地，
+ * 租期内的请求直接在本地内存中扣减，绝大多数判断无需访问 Redis。
+ * 租期结束后未用完的令牌会归还到 Redis 令牌桶。
+ * 租借令牌会让单个节点短时间内提前占用少量配额，租借批次越小、租期越短，集群范围内的限流越精确。
+ * 配置项：cache.distributed.type=redis 时启用此实现。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.distributed.type", havingValue = "redis")
+public class RedisRateLimiterFactory implements RateLimiterFactory, DisposableBean {
+
+    /**
+     * 默认的限流键前缀。
+     */
+    private static final String DEFAULT_KEY_PREFIX = "rate_limit:";
+
+    /**
+     * 从令牌桶中获取令牌的 Lua 脚本，返回实际获取到的令牌数（可能小于请求数）。
+     * ARGV：容量、每毫秒补充的令牌数、请求的令牌数、令牌桶的过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.replicate_commands then redis.replicate_commands() end\n" +
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local requested = tonumber(ARGV[3])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local ts = tonumber(bucket[2])\n" +
+            "if tokens == nil or ts == nil then\n" +
+            "  tokens = capacity\n" +
+            "  ts = now\n" +
+            "end\n" +
+            "if now > ts then\n" +
+            "  tokens = math.min(capacity, tokens + (now - ts) * rate)\n" +
+            "  ts = now\n" +
+            "end\n" +
+            "local granted = math.min(requested, math.floor(tokens))\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tokens - granted, 'ts', ts)\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[4])\n" +
+            "return granted", Long.class);
+
+    /**
+     * 归还未用完令牌的 Lua 脚本，令牌桶不存在（已过期）时不归还。
+     * ARGV：容量、归还的令牌数。
+     */
+    private static final RedisScript<Long> RETURN_SCRIPT = new DefaultRedisScript<>(
+            "local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))\n" +
+            "if tokens == nil then\n" +
+            "  return 0\n" +
+            "end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', math.min(tonumber(ARGV[1]), tokens + tonumber(ARGV[2])))\n" +
+            "return 1", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 单次租借的最大令牌数。
+     */
+    private final int maxLeaseSize;
+
+    /**
+     * 租期（毫秒）。
+     */
+    private final long leaseMillis;
+
+    /**
+     * 已创建的限流器，按名称缓存。
+     */
+    private final Map<String, LeasedRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * 负责回收过期租约并归还令牌的线程。
+     */
+    private final ScheduledExecutorService leaseReclaimer;
+
+    public RedisRateLimiterFactory(@Value("${cache.rate-limiter.max-lease-size:10}") int maxLeaseSize,
+                                   @Value("${cache.rate-limiter.lease-millis:100}") long leaseMillis) {
+        if (maxLeaseSize <= 0) {
+            throw new IllegalArgumentException("Max lease size must be positive");
+        }
+        if (leaseMillis <= 0) {
+            throw new IllegalArgumentException("Lease millis must be positive");
+        }
+        this.maxLeaseSize = maxLeaseSize;
+        this.leaseMillis = leaseMillis;
+        this.leaseReclaimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limiter-lease-reclaimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.leaseReclaimer.scheduleWithFixedDelay(this::reclaimExpiredLeases, leaseMillis, leaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public RateLimiter getRateLimiter(String name, long capacity, double refillPerSecond) {
+        if (!StringUtils.hasText(name)) {
+            throw new IllegalArgumentException("Rate limiter name cannot be null or empty");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        return rateLimiters.computeIfAbsent(name, k -> new LeasedRateLimiter(k, capacity, refillPerSecond));
+    }
+
+    @Override
+    public String getFactoryName() {
+        return "redis";
+    }
+
+    /**
+     * 容器关闭时停止回收线程，并归还所有租约中未用完的令牌。
+     */
+    @Override
+    public void destroy() {
+        leaseReclaimer.shutdown();
+        for (LeasedRateLimiter rateLimiter : rateLimiters.values()) {
+            rateLimiter.releaseLeases(true);
+        }
+    }
+
+    private void reclaimExpiredLeases() {
+        for (LeasedRateLimiter rateLimiter : rateLimiters.values()) {
+            try {
+                rateLimiter.releaseLeases(false);
+            } catch (Exception e) {
+                // 记录异常日志，归还失败的令牌会随令牌桶补充自然恢复
+                System.err.println("Failed to return leased tokens for rate limiter: " + rateLimiter.getName() + ", error: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 租借令牌批次的限流器实现。
+     */
+    private class LeasedRateLimiter implements RateLimiter {
+
+        private final String name;
+        private final long capacity;
+
+        /**
+         * 每毫秒补充的令牌数。
+         */
+        private final double refillPerMillis;
+
+        /**
+         * 单次租借的令牌数，不超过容量的十分之一，避免单个节点占用过多配额。
+         */
+        private final int leaseSize;
+
+        /**
+         * 令牌桶在 Redis 中的过期时间（毫秒），为补满令牌桶所需时间的两倍。
+         */
+        private final String bucketTtlMillis;
+
+        /**
+         * 限流键到本地租约的映射。
+         */
+        private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+        private LeasedRateLimiter(String name, long capacity, double refillPerSecond) {
+            this.name = name;
+            this.capacity = capacity;
+            this.refillPerMillis = refillPerSecond / 1000D;
+            this.leaseSize = (int) Math.max(1, Math.min(maxLeaseSize, capacity / 10));
+            this.bucketTtlMillis = String.valueOf(Math.max(1000L, (long) Math.ceil(capacity / refillPerMillis) * 2));
+        }
+
+        @Override
+        public boolean tryAcquire(String key) {
+            return tryAcquire(key, 1);
+        }
+
+        @Override
+        public boolean tryAcquire(String key, int permits) {
+            if (!StringUtils.hasText(key)) {
+                throw new IllegalArgumentException("Key cannot be null or empty");
+            }
+            if (permits <= 0) {
+                throw new IllegalArgumentException("Permits must be positive");
+            }
+
+            // 优先从本地租约中扣减
+            Lease lease = leases.get(key);
+            int carried = 0;
+            if (lease != null) {
+                if (!lease.isExpired() && lease.tryTake(permits)) {
+                    return true;
+                }
+                if (leases.remove(key, lease)) {
+                    // 租约中剩余的令牌计入本次请求，只向 Redis 租借不足的部分；
+                    // 先异步归还再租借时，归还可能尚未到达 Redis，导致接近限额时误拒绝
+                    carried = lease.drain();
+                }
+            }
+
+            // 本地租约不足，向 Redis 租借新的一批令牌
+            long granted = 0;
+            if (carried < permits) {
+                granted = acquireFromRedis(key, Math.max(permits - carried, leaseSize));
+                if (granted + carried < permits) {
+                    returnTokensAsync(key, (int) granted + carried);
+                    return false;
+                }
+            }
+
+            int leftover = (int) (granted + carried - permits);
+            if (leftover > 0) {
+                Lease newLease = new Lease(leftover, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis));
+                if (leases.putIfAbsent(key, newLease) != null) {
+                    // 其他线程已建立租约，多租借的令牌直接归还
+                    returnTokensAsync(key, newLease.drain());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 释放租约并归还未用完的令牌。
+         *
+         * @param all 为 true 时释放全部租约，否则只释放已过期的租约
+         */
+        private void releaseLeases(boolean all) {
+            for (Map.Entry<String, Lease> entry : leases.entrySet()) {
+                Lease lease = entry.getValue();
+                if ((all || lease.isExpired()) && leases.remove(entry.getKey(), lease)) {
+                    returnTokens(entry.getKey(), lease.drain());
+                }
+            }
+        }
+
+        private long acquireFromRedis(String key, int requested) {
+            Long granted = stringRedisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(bucketKey(key)),
+                    String.valueOf(capacity), String.valueOf(refillPerMillis), String.valueOf(requested), bucketTtlMillis);
+            return granted != null ? granted : 0;
+        }
+
+        private void returnTokens(String key, int tokens) {
+            if (tokens > 0) {
+                stringRedisTemplate.execute(RETURN_SCRIPT, Collections.singletonList(bucketKey(key)),
+                        String.valueOf(capacity), String.valueOf(tokens));
+            }
+        }
+
+        private void returnTokensAsync(String key, int tokens) {
+            if (tokens <= 0) {
+                return;
+            }
+            if (leaseReclaimer.isShutdown()) {
+                returnTokens(key, tokens);
+            } else {
+                leaseReclaimer.execute(() -> returnTokens(key, tokens));
+            }
+        }
+
+        private String bucketKey(String key) {
+            return DEFAULT_KEY_PREFIX + name + ":" + key;
+        }
+    }
+
+    /**
+     * 本地令牌租约。
+     */
+    private static final class Lease {
+
+        /**
+         * 剩余的令牌数。
+         */
+        private final AtomicInteger remaining;
+
+        /**
+         * 租约到期时间（System.nanoTime）。
+         */
+        private final long expireAtNanos;
+
+        private Lease(int tokens, long expireAtNanos) {
+            this.remaining = new AtomicInteger(tokens);
+            this.expireAtNanos = expireAtNanos;
+        }
+
+        private boolean tryTake(int permits) {
+            while (true) {
+                int current = remaining.get();
+                if (current < permits) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - permits)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 取走全部剩余令牌，之后的扣减都会失败。
+         */
+        private int drain() {
+            return remaining.getAndSet(0);
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expireAtNanos >= 0;
+        }
+    }
+}
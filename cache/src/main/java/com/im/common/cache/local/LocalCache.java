@@ -1,6 +1,12 @@
 package com.im.common.cache.local;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * 本地缓存接口。
@@ -47,6 +53,64 @@ public interface LocalCache {
      */
     <K, V> V getOrDefault(K key, V defaultValue);
 
+    /**
+     * 根据 key 从缓存中获取数据，若不存在则通过 loader 加载并写入缓存（不设置过期时间）。
+     * 默认实现不保证同一 key 只加载一次，实现类可覆盖为原子加载。
+     * @param key 缓存键
+     * @param loader 数据加载函数，返回 null 时不写入缓存
+     * @param <K> 键的类型
+     * @param <V> 值的类型
+     * @return 缓存值或加载到的值，加载结果为 null 时返回 null
+     */
+    default <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 批量获取数据，所有未命中的 key 通过一次 bulkLoader 调用加载并写入缓存（不设置过期时间）。
+     * @param keys 缓存键集合
+     * @param bulkLoader 批量加载函数，入参为未命中的 key 集合，返回结果中缺失的 key 视为不存在
+     * @param <K> 键的类型
+     * @param <V> 值的类型
+     * @return key 到值的映射，只包含命中或加载到的 key
+     */
+    default <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                    Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        Map<K, V> result = new HashMap<>((int) (keys.size() / 0.75f) + 1);
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<? extends K, ? extends V> loaded = bulkLoader.apply(missing);
+        if (loaded != null) {
+            for (K key : missing) {
+                V value = loaded.get(key);
+                if (value != null) {
+                    put(key, value);
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * 移除缓存中的数据。
      * @param key 缓存键
@@ -0,0 +1,20 @@
+package com.im.common.cache.local;
+
+/**
+ * 运行时可调整容量上限的缓存。
+ * 用于在堆内存紧张时收缩缓存容量，压力解除后再逐步恢复。
+ */
+public interface ResizableCache {
+
+    /**
+     * 获取当前容量上限。
+     * @return 容量上限，按字节预算淘汰时为估算字节数，否则为条目数
+     */
+    long getMaximum();
+
+    /**
+     * 调整容量上限，超出新上限的条目会被淘汰。
+     * @param maximum 新的容量上限，单位与 {@link #getMaximum()} 相同
+     */
+    void setMaximum(long maximum);
+}
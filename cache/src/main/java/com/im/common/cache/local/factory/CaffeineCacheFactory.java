@@ -0,0 +1,304 @@
+package com.im.common.cache.local.factory;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.im.common.cache.local.size.SizeEstimator;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Caffeine 缓存工厂类。
+ * 提供多种方式创建 Caffeine Cache 实例，方法与 {@link GuavaCacheFactory} 一一对应，
+ * 并额外支持按条目过期（Expiry）与异步刷新。
+ */
+public class CaffeineCacheFactory {
+
+    /**
+     * 创建默认配置的 Caffeine Cache 实例。
+     * 默认配置：最大容量 1000，写入后 10 分钟过期。
+     *
+     * @param <K> 键的类型
+     * @param <V> 值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createDefault() {
+        return Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * 创建指定最大容量的 Caffeine Cache 实例。
+     *
+     * @param maximumSize 最大容量
+     * @param <K>         键的类型
+     * @param <V>         值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxSize(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * 创建指定过期时间的 Caffeine Cache 实例（写入后过期）。
+     *
+     * @param expireAfterWrite 写入后过期时间
+     * @param <K>              键的类型
+     * @param <V>              值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithExpireAfterWrite(Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 创建指定过期时间的 Caffeine Cache 实例（访问后过期）。
+     *
+     * @param expireAfterAccess 访问后过期时间
+     * @param <K>               键的类型
+     * @param <V>               值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithExpireAfterAccess(Duration expireAfterAccess) {
+        return Caffeine.newBuilder()
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * 创建指定最大容量和写入后过期时间的 Caffeine Cache 实例。
+     *
+     * @param maximumSize      最大容量
+     * @param expireAfterWrite 写入后过期时间
+     * @param <K>              键的类型
+     * @param <V>              值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxSizeAndExpireAfterWrite(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 创建指定最大容量和访问后过期时间的 Caffeine Cache 实例。
+     *
+     * @param maximumSize       最大容量
+     * @param expireAfterAccess 访问后过期时间
+     * @param <K>               键的类型
+     * @param <V>               值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxSizeAndExpireAfterAccess(long maximumSize, Duration expireAfterAccess) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * 创建完全自定义配置的 Caffeine Cache 实例。
+     *
+     * @param maximumSize       最大容量（可为 null）
+     * @param expireAfterWrite  写入后过期时间（可为 null）
+     * @param expireAfterAccess 访问后过期时间（可为 null）
+     * @param initialCapacity   初始容量（可为 null）
+     * @param <K>               键的类型
+     * @param <V>               值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createCustom(Long maximumSize,
+                                                   Duration expireAfterWrite,
+                                                   Duration expireAfterAccess,
+                                                   Integer initialCapacity) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+
+        if (maximumSize != null) {
+            builder.maximumSize(maximumSize);
+        }
+
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+
+        if (expireAfterAccess != null) {
+            builder.expireAfterAccess(expireAfterAccess);
+        }
+
+        if (initialCapacity != null) {
+            builder.initialCapacity(initialCapacity);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * 创建支持软引用的 Caffeine Cache 实例。
+     * 软引用允许在内存不足时回收缓存对象。
+     *
+     * @param maximumSize 最大容量
+     * @param <K>         键的类型
+     * @param <V>         值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithSoftValues(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .softValues()
+                .build();
+    }
+
+    /**
+     * 创建支持弱引用的 Caffeine Cache 实例。
+     * 弱引用允许在 GC 时回收缓存对象。
+     *
+     * @param maximumSize 最大容量
+     * @param <K>         键的类型
+     * @param <V>         值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithWeakValues(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .weakValues()
+                .build();
+    }
+
+    /**
+     * 创建按条目过期的 Caffeine Cache 实例。
+     * 每个条目的过期时间由 expiry 计算，可通过 {@code cache.policy().expireVariably()} 为单个条目指定 TTL。
+     *
+     * @param maximumSize 最大容量
+     * @param expiry      条目过期时间的计算策略
+     * @param <K>         键的类型
+     * @param <V>         值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithVariableExpiry(long maximumSize, Expiry<K, V> expiry) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(expiry)
+                .build();
+    }
+
+    /**
+     * 创建按字节预算淘汰、按条目过期的 Caffeine Cache 实例。
+     *
+     * @param maximumBytes 字节预算
+     * @param estimator    条目大小估算器
+     * @param expiry       条目过期时间的计算策略
+     * @param <K>          键的类型
+     * @param <V>          值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxWeightAndVariableExpiry(long maximumBytes,
+                                                                          SizeEstimator estimator,
+                                                                          Expiry<K, V> expiry) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(CaffeineCacheFactory.<K, V>weigher(estimator))
+                .expireAfter(expiry)
+                .build();
+    }
+
+    /**
+     * 创建写入后定时异步刷新的 Caffeine LoadingCache 实例。
+     * 条目写入超过 refreshAfterWrite 后的首次访问会触发后台刷新，刷新完成前继续返回旧值。
+     *
+     * @param maximumSize       最大容量
+     * @param refreshAfterWrite 写入后刷新时间
+     * @param loader            数据加载器
+     * @param executor          执行加载与刷新的线程池
+     * @param <K>               键的类型
+     * @param <V>               值的类型
+     * @return Caffeine LoadingCache 实例
+     */
+    public static <K, V> LoadingCache<K, V> createWithRefreshAfterWrite(long maximumSize,
+                                                                        Duration refreshAfterWrite,
+                                                                        CacheLoader<K, V> loader,
+                                                                        Executor executor) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(executor)
+                .build(loader);
+    }
+
+    /**
+     * 创建写入后定时异步刷新的 Caffeine AsyncLoadingCache 实例。
+     * 加载与刷新都在 executor 中执行，调用方获得 CompletableFuture 而不阻塞。
+     *
+     * @param maximumSize       最大容量
+     * @param refreshAfterWrite 写入后刷新时间
+     * @param loader            数据加载器
+     * @param executor          执行加载与刷新的线程池
+     * @param <K>               键的类型
+     * @param <V>               值的类型
+     * @return Caffeine AsyncLoadingCache 实例
+     */
+    public static <K, V> AsyncLoadingCache<K, V> createAsyncWithRefreshAfterWrite(long maximumSize,
+                                                                                  Duration refreshAfterWrite,
+                                                                                  CacheLoader<K, V> loader,
+                                                                                  Executor executor) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(executor)
+                .buildAsync(loader);
+    }
+
+    /**
+     * 创建按字节预算淘汰的 Caffeine Cache 实例。
+     * 每个条目的权重为 estimator 估算的字节数，所有条目的权重之和不超过 maximumBytes。
+     *
+     * @param maximumBytes 字节预算
+     * @param estimator    条目大小估算器
+     * @param <K>          键的类型
+     * @param <V>          值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxWeight(long maximumBytes, SizeEstimator estimator) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(weigher(estimator))
+                .build();
+    }
+
+    /**
+     * 创建按字节预算淘汰、写入后过期的 Caffeine Cache 实例。
+     *
+     * @param maximumBytes     字节预算
+     * @param estimator        条目大小估算器
+     * @param expireAfterWrite 写入后过期时间
+     * @param <K>              键的类型
+     * @param <V>              值的类型
+     * @return Caffeine Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxWeightAndExpireAfterWrite(long maximumBytes,
+                                                                            SizeEstimator estimator,
+                                                                            Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(weigher(estimator))
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 将大小估算器适配为权重函数，权重限制在 [1, Integer.MAX_VALUE] 范围内。
+     */
+    private static <K, V> Weigher<K, V> weigher(SizeEstimator estimator) {
+        return (key, value) -> (int) Math.max(1L, Math.min(Integer.MAX_VALUE, estimator.estimate(key, value)));
+    }
+}
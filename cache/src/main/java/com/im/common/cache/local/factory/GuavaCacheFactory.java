@@ -1,6 +1,8 @@
 package com.im.common.cache.local.factory;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.im.common.cache.local.size.SizeEstimator;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
@@ -173,4 +175,48 @@ public class GuavaCacheFactory {
                 .weakValues()
                 .build();
     }
+
+    /**
+     * 创建按字节预算淘汰的 Guava Cache 实例。
+     * 每个条目的权重为 estimator 估算的字节数，所有条目的权重之和不超过 maximumBytes。
+     *
+     * @param maximumBytes 字节预算
+     * @param estimator    条目大小估算器
+     * @param <K>          键的类型
+     * @param <V>          值的类型
+     * @return Guava Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxWeight(long maximumBytes, SizeEstimator estimator) {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(weigher(estimator))
+                .build();
+    }
+
+    /**
+     * 创建按字节预算淘汰、写入后过期的 Guava Cache 实例。
+     *
+     * @param maximumBytes     字节预算
+     * @param estimator        条目大小估算器
+     * @param expireAfterWrite 写入后过期时间
+     * @param <K>              键的类型
+     * @param <V>              值的类型
+     * @return Guava Cache 实例
+     */
+    public static <K, V> Cache<K, V> createWithMaxWeightAndExpireAfterWrite(long maximumBytes,
+                                                                            SizeEstimator estimator,
+                                                                            Duration expireAfterWrite) {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(weigher(estimator))
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * 将大小估算器适配为权重函数，权重限制在 [1, Integer.MAX_VALUE] 范围内。
+     */
+    private static <K, V> Weigher<K, V> weigher(SizeEstimator estimator) {
+        return (key, value) -> (int) Math.max(1L, Math.min(Integer.MAX_VALUE, estimator.estimate(key, value)));
+    }
 }
@@ -0,0 +1,220 @@
+package com.im.common.cache.local.impl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.ResizableCache;
+import com.im.common.cache.local.factory.CaffeineCacheFactory;
+import com.im.common.cache.local.size.DefaultSizeEstimator;
+import com.im.common.cache.local.size.SizeEstimator;
+import com.im.common.cache.local.snapshot.SnapshotableCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 基于 Caffeine 的本地缓存实现。
+ * 所有条目保存在同一个 Caffeine Cache 中，使用 W-TinyLFU 淘汰策略，
+ * 通过 Caffeine 原生的按条目过期（Expiry）支持不同的 TTL，无需为每种 TTL 创建单独的缓存。
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.local.type=caffeine 时启用此实现，容量上限由 cache.local.maximum-size 配置（默认 10000）。
+ * 配置 cache.local.max-bytes 为正数时改为按字节预算淘汰，条目大小由 {@link SizeEstimator} 估算（未声明时使用默认估算器）。
+ * 容量上限可在运行时调整，开启自适应模式时由堆内存压力监控自动收缩与恢复。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.type", havingValue = "caffeine")
+public class CaffeineLocalCache implements LocalCache, ResizableCache, SnapshotableCache {
+
+    /**
+     * 不设置 TTL 写入的条目永不过期，读取不改变剩余过期时间。
+     */
+    private static final Expiry<Object, Object> NO_EXPIRY = new Expiry<Object, Object>() {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    };
+
+    /**
+     * 剩余过期时间超过该值的条目视为永不过期（Caffeine 会把过期时间截断到约 146 年）。
+     */
+    private static final long NO_EXPIRY_THRESHOLD_NANOS = Long.MAX_VALUE >> 2;
+
+    private final Cache<Object, Object> cache;
+
+    /**
+     * 按条目设置过期时间的入口。
+     */
+    private final Policy.VarExpiration<Object, Object> varExpiration;
+
+    /**
+     * 调整容量上限的入口。
+     */
+    private final Policy.Eviction<Object, Object> eviction;
+
+    /**
+     * 构造函数，使用默认容量上限 10000。
+     */
+    public CaffeineLocalCache() {
+        this(10000);
+    }
+
+    /**
+     * 构造函数，按条目数淘汰。
+     *
+     * @param maximumSize 容量上限
+     */
+    public CaffeineLocalCache(long maximumSize) {
+        this(CaffeineCacheFactory.createWithVariableExpiry(maximumSize, NO_EXPIRY));
+    }
+
+    /**
+     * 构造函数，按字节预算淘汰。
+     *
+     * @param maximumBytes 字节预算
+     * @param estimator    条目大小估算器
+     */
+    public CaffeineLocalCache(long maximumBytes, SizeEstimator estimator) {
+        this(CaffeineCacheFactory.createWithMaxWeightAndVariableExpiry(maximumBytes, estimator, NO_EXPIRY));
+    }
+
+    /**
+     * 构造函数，maximumBytes 为正数时按字节预算淘汰，否则按条目数淘汰。
+     *
+     * @param maximumSize       容量上限（条目数）
+     * @param maximumBytes      字节预算
+     * @param estimatorProvider 条目大小估算器，未声明时使用 {@link DefaultSizeEstimator}
+     */
+    @Autowired
+    public CaffeineLocalCache(@Value("${cache.local.maximum-size:10000}") long maximumSize,
+                              @Value("${cache.local.max-bytes:0}") long maximumBytes,
+                              ObjectProvider<SizeEstimator> estimatorProvider) {
+        this(maximumBytes > 0
+                ? CaffeineCacheFactory.createWithMaxWeightAndVariableExpiry(maximumBytes,
+                        estimatorProvider.getIfAvailable(DefaultSizeEstimator::new), NO_EXPIRY)
+                : CaffeineCacheFactory.createWithVariableExpiry(maximumSize, NO_EXPIRY));
+    }
+
+    private CaffeineLocalCache(Cache<Object, Object> cache) {
+        this.cache = cache;
+        this.varExpiration = cache.policy().expireVariably()
+                .orElseThrow(() -> new IllegalStateException("Variable expiration is not enabled"));
+        this.eviction = cache.policy().eviction()
+                .orElseThrow(() -> new IllegalStateException("Eviction is not enabled"));
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value, Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            // 如果 TTL 无效，不设置过期时间
+            put(key, value);
+            return;
+        }
+        varExpiration.put(key, value, ttl.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        return (V) cache.getIfPresent(key);
+    }
+
+    /**
+     * 同一 key 的并发加载只会执行一次，其余线程等待加载结果。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        return (V) cache.get(key, k -> loader.apply((K) k));
+    }
+
+    /**
+     * 未命中的 key 通过一次 bulkLoader 调用加载，加载期间同一 key 的其他读取等待加载结果。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        Map<Object, Object> result = cache.getAll(keys, missingKeys -> {
+            Set<K> missing = new LinkedHashSet<>();
+            missingKeys.forEach(k -> missing.add((K) k));
+            return (Map<Object, Object>) bulkLoader.apply(missing);
+        });
+        return (Map<K, V>) result;
+    }
+
+    @Override
+    public <K, V> V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        return cache.asMap().remove(key) != null;
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        return cache.getIfPresent(key) != null;
+    }
+
+    @Override
+    public long getMaximum() {
+        return eviction.getMaximum();
+    }
+
+    @Override
+    public void setMaximum(long maximum) {
+        eviction.setMaximum(maximum);
+    }
+
+    @Override
+    public void forEachEntry(EntryVisitor visitor) {
+        cache.asMap().forEach((key, value) -> {
+            OptionalLong expiresAfter = varExpiration.getExpiresAfter(key, TimeUnit.NANOSECONDS);
+            if (!expiresAfter.isPresent() || expiresAfter.getAsLong() <= 0) {
+                return;
+            }
+            long remainingNanos = expiresAfter.getAsLong();
+            visitor.visit(key, value, remainingNanos >= NO_EXPIRY_THRESHOLD_NANOS ? null : Duration.ofNanos(remainingNanos));
+        });
+    }
+}
@@ -1,40 +1,100 @@
 package com.im.common.cache.local.impl;
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.im.common.cache.local.factory.GuavaCacheFactory;
 import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.size.DefaultSizeEstimator;
+import com.im.common.cache.local.size.SizeEstimator;
+import com.im.common.cache.local.snapshot.SnapshotableCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 /**
  * 基于 Guava Cache 的本地缓存实现。
  * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
  * 配置项：cache.local.type=guava 时启用此实现。
+ * 配置 cache.local.max-bytes 为正数时，所有条目（包括带 TTL 的条目）保存在同一个按该字节预算淘汰的缓存中，
+ * 条目大小由 {@link SizeEstimator} 估算（未声明时使用默认估算器）。Guava Cache 不支持按条目设置过期时间，
+ * 带 TTL 的条目携带过期时间，读取时发现已过期则视为不存在并移除，未被读取的过期条目在淘汰时回收，
+ * 因此总占用不超过字节预算；否则默认缓存最多保存 10000 个条目，每个 TTL 使用一个独立的缓存实例。
  */
 @Component
 @ConditionalOnProperty(name = "cache.local.type", havingValue = "guava")
-public class GuavaLocalCache implements LocalCache {
+public class GuavaLocalCache implements LocalCache, SnapshotableCache {
 
     /**
-     * 默认的 Guava Cache 实例，用于不设置过期时间的缓存。
+     * 按字节预算淘汰时为每个带 TTL 的条目额外计入的字节数（过期时间包装对象）。
+     */
+    private static final long EXPIRING_OVERHEAD_BYTES = 24;
+
+    /**
+     * 默认的 Guava Cache 实例，用于不设置过期时间的缓存；按字节预算淘汰时保存所有条目。
      */
     private final Cache<Object, Object> defaultCache;
 
     /**
-     * 存储带有自定义 TTL 的缓存实例。
+     * 存储带有自定义 TTL 的缓存实例，仅按条目数淘汰时使用。
      * Key 为 TTL 的毫秒数，Value 为对应的 Cache 实例。
      */
     private final ConcurrentMap<Long, Cache<Object, Object>> ttlCacheMap;
 
+    /**
+     * 所有条目共享的字节预算，不大于 0 时按条目数淘汰。
+     */
+    private final long maximumBytes;
+
     /**
      * 构造函数，初始化默认缓存和 TTL 缓存映射。
      */
     public GuavaLocalCache() {
-        // 创建默认缓存实例（最大容量 10000，不设置过期时间）
-        this.defaultCache = GuavaCacheFactory.createWithMaxSize(10000);
+        this(0, (SizeEstimator) null);
+    }
+
+    /**
+     * 构造函数，maximumBytes 为正数时按字节预算淘汰。
+     *
+     * @param maximumBytes      所有条目共享的字节预算
+     * @param estimatorProvider 条目大小估算器，未声明时使用 {@link DefaultSizeEstimator}
+     */
+    @Autowired
+    public GuavaLocalCache(@Value("${cache.local.max-bytes:0}") long maximumBytes,
+                           ObjectProvider<SizeEstimator> estimatorProvider) {
+        this(maximumBytes, maximumBytes > 0 ? estimatorProvider.getIfAvailable(DefaultSizeEstimator::new) : null);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param maximumBytes 所有条目共享的字节预算，不大于 0 时按条目数淘汰
+     * @param estimator    条目大小估算器，按字节预算淘汰时不能为 null
+     * @throws IllegalArgumentException 如果按字节预算淘汰但估算器为 null
+     */
+    public GuavaLocalCache(long maximumBytes, SizeEstimator estimator) {
+        if (maximumBytes > 0 && estimator == null) {
+            throw new IllegalArgumentException("Size estimator cannot be null");
+        }
+        this.maximumBytes = maximumBytes;
+        if (maximumBytes > 0) {
+            // 估算时去掉过期时间包装，按实际的值计算大小
+            this.defaultCache = GuavaCacheFactory.createWithMaxWeight(maximumBytes, (key, value) ->
+                    value instanceof Expiring
+                            ? estimator.estimate(key, ((Expiring) value).value) + EXPIRING_OVERHEAD_BYTES
+                            : estimator.estimate(key, value));
+        } else {
+            // 创建默认缓存实例（最大容量 10000，不设置过期时间）
+            this.defaultCache = GuavaCacheFactory.createWithMaxSize(10000);
+        }
         this.ttlCacheMap = new ConcurrentHashMap<>();
     }
 
@@ -51,11 +111,15 @@ public class GuavaLocalCache implements LocalCache {
             return;
         }
 
+        if (maximumBytes > 0) {
+            defaultCache.put(key, new Expiring(value, System.nanoTime() + ttl.toNanos()));
+            return;
+        }
+
         // 获取或创建对应 TTL 的缓存实例
         long ttlMillis = ttl.toMillis();
-        Cache<Object, Object> cache = ttlCacheMap.computeIfAbsent(ttlMillis, k ->
-                GuavaCacheFactory.createWithExpireAfterWrite(Duration.ofMillis(k))
-        );
+        Cache<Object, Object> cache = ttlCacheMap.computeIfAbsent(ttlMillis,
+                k -> GuavaCacheFactory.createWithExpireAfterWrite(Duration.ofMillis(k)));
 
         cache.put(key, value);
     }
@@ -64,7 +128,7 @@ public class GuavaLocalCache implements LocalCache {
     @SuppressWarnings("unchecked")
     public <K, V> V get(K key) {
         // 先从默认缓存中查找
-        V value = (V) defaultCache.getIfPresent(key);
+        V value = (V) unwrap(key, defaultCache.getIfPresent(key));
         if (value != null) {
             return value;
         }
@@ -80,6 +144,40 @@ public class GuavaLocalCache implements LocalCache {
         return null;
     }
 
+    /**
+     * 未命中时在默认缓存中加载，同一 key 的并发加载只会执行一次，其余线程等待加载结果。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        try {
+            Object stored = defaultCache.get(key, () -> loader.apply(key));
+            if (stored instanceof Expiring && ((Expiring) stored).isExpired(System.nanoTime())) {
+                // 加载前读到的过期条目已被移除，重新加载
+                defaultCache.asMap().remove(key, stored);
+                return get(key, loader);
+            }
+            return (V) unwrap(key, stored);
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            // 加载结果为 null，不写入缓存
+            return null;
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to load value for key: " + key, cause);
+        }
+    }
+
     @Override
     public <K, V> V getOrDefault(K key, V defaultValue) {
         V value = get(key);
@@ -90,9 +188,9 @@ public class GuavaLocalCache implements LocalCache {
     public <K> boolean remove(K key) {
         boolean removed = false;
 
-        // 从默认缓存中移除
-        if (defaultCache.getIfPresent(key) != null) {
-            defaultCache.invalidate(key);
+        // 从默认缓存中移除，已过期的条目不计为移除成功
+        Object stored = defaultCache.asMap().remove(key);
+        if (stored != null && !(stored instanceof Expiring && ((Expiring) stored).isExpired(System.nanoTime()))) {
             removed = true;
         }
 
@@ -132,7 +230,7 @@ public class GuavaLocalCache implements LocalCache {
     @Override
     public <K> boolean containsKey(K key) {
         // 检查默认缓存
-        if (defaultCache.getIfPresent(key) != null) {
+        if (unwrap(key, defaultCache.getIfPresent(key)) != null) {
             return true;
         }
 
@@ -145,4 +243,57 @@ public class GuavaLocalCache implements LocalCache {
 
         return false;
     }
+
+    /**
+     * 只遍历默认缓存中的条目：按条目数淘汰时 Guava Cache 无法查询单个条目的剩余过期时间，TTL 缓存中的条目不参与快照；
+     * 按字节预算淘汰时带 TTL 的条目携带过期时间，按剩余过期时间参与快照。
+     */
+    @Override
+    public void forEachEntry(EntryVisitor visitor) {
+        long now = System.nanoTime();
+        defaultCache.asMap().forEach((key, value) -> {
+            if (!(value instanceof Expiring)) {
+                visitor.visit(key, value, null);
+                return;
+            }
+            Expiring expiring = (Expiring) value;
+            if (!expiring.isExpired(now)) {
+                visitor.visit(key, expiring.value, Duration.ofNanos(expiring.expireAtNanos - now));
+            }
+        });
+    }
+
+    /**
+     * 去掉过期时间包装，已过期的条目从默认缓存中移除并返回 null。
+     */
+    private Object unwrap(Object key, Object stored) {
+        if (!(stored instanceof Expiring)) {
+            return stored;
+        }
+        Expiring expiring = (Expiring) stored;
+        if (expiring.isExpired(System.nanoTime())) {
+            defaultCache.asMap().remove(key, stored);
+            return null;
+        }
+        return expiring.value;
+    }
+
+    /**
+     * 按字节预算淘汰时带 TTL 的条目，携带过期时间（System.nanoTime 基准）。
+     */
+    private static final class Expiring {
+
+        private final Object value;
+
+        private final long expireAtNanos;
+
+        private Expiring(Object value, long expireAtNanos) {
+            this.value = value;
+            this.expireAtNanos = expireAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expireAtNanos >= 0;
+        }
+    }
 }
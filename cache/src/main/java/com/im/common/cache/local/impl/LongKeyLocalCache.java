@@ -0,0 +1,493 @@
+package com.im.common.cache.local.impl;
+
+import com.im.common.cache.local.LocalCache;
+
+import java.time.Duration;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 以 long 为键的本地缓存。
+ *
+ * <p>适用于按用户 ID、群组 ID 等数值键查找的场景。与 {@link LocalCache} 相比，键不装箱，也不为每个条目分配哈希节点：
+ * 每个分段使用开放寻址（线性探测）的并行数组保存键、值、过期时间与访问标记，单个条目的额外开销约为 21 字节。</p>
+ *
+ * <p>缓存按键的哈希分为多个分段，每个分段一把 {@link StampedLock}。读操作先尝试乐观读，
+ * 校验失败时才退化为读锁，命中路径不分配任何对象；写操作持有所在分段的写锁。</p>
+ *
+ * <p>每个分段的容量上限为 {@code ceil(maximumSize / 分段数)}，超出时按 CLOCK 算法淘汰：
+ * 指针依次扫描槽位，已过期或最近未被访问的条目被淘汰，最近被访问过的条目清除访问标记后获得一次保留机会。
+ * 过期条目在读取时视为不存在，并在写入淘汰或调用 {@link #cleanUp()} 时被清理。</p>
+ *
+ * @param <V> 值的类型
+ */
+public class LongKeyLocalCache<V> {
+
+    /**
+     * 表示永不过期的过期时间。
+     */
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /**
+     * 分段哈希表的初始槽位数。
+     */
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    /**
+     * 分段哈希表的最大槽位数。
+     */
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 30;
+
+    private final Segment<V>[] segments;
+
+    private final int segmentMask;
+
+    /**
+     * 时间基准，缓存内部的时间均为相对该基准的纳秒数。
+     */
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * 构造函数，使用默认并发级别 16。
+     *
+     * @param maximumSize 容量上限
+     * @throws IllegalArgumentException 如果容量上限不为正数
+     */
+    public LongKeyLocalCache(long maximumSize) {
+        this(maximumSize, 16);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param maximumSize      容量上限
+     * @param concurrencyLevel 并发级别，即分段数，向上取整为 2 的幂
+     * @throws IllegalArgumentException 如果容量上限或并发级别不为正数
+     */
+    public LongKeyLocalCache(long maximumSize, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive");
+        }
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount < (1 << 16) && segmentCount * 2L <= maximumSize) {
+            segmentCount <<= 1;
+        }
+        long perSegment = (maximumSize + segmentCount - 1) / segmentCount;
+        int segmentMaximum = (int) Math.min(perSegment, MAXIMUM_TABLE_SIZE / 4 * 3);
+
+        this.segments = newSegments(segmentCount);
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentMaximum);
+        }
+    }
+
+    /**
+     * 向缓存中添加数据（不设置过期时间）。
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @throws IllegalArgumentException 如果 value 为 null
+     */
+    public void put(long key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * 向缓存中添加数据并设置过期时间（TTL）。
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @param ttl   过期时间，为 null、零或负数时不设置过期时间
+     * @throws IllegalArgumentException 如果 value 为 null
+     */
+    public void put(long key, V value, Duration ttl) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        long now = now();
+        long expireAt = NO_EXPIRY;
+        if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+            // 防止溢出
+            long ttlNanos = ttl.toNanos();
+            expireAt = ttlNanos >= NO_EXPIRY - now ? NO_EXPIRY : now + ttlNanos;
+        }
+        long hash = hash(key);
+        segmentFor(hash).put(key, hash, value, expireAt, now);
+    }
+
+    /**
+     * 根据 key 从缓存中获取数据。
+     *
+     * @param key 缓存键
+     * @return 缓存值，若不存在或已过期返回 null
+     */
+    public V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash, now());
+    }
+
+    /**
+     * 根据 key 从缓存中获取数据，若不存在则返回默认值。
+     *
+     * @param key          缓存键
+     * @param defaultValue 默认值
+     * @return 缓存值，若不存在或已过期返回默认值
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 判断缓存中是否包含指定的 key。
+     *
+     * @param key 缓存键
+     * @return 若存在且未过期返回 true，否则返回 false
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 移除缓存中的数据。
+     *
+     * @param key 缓存键
+     * @return 移除是否成功，若 key 不存在或已过期返回 false
+     */
+    public boolean remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, hash, now());
+    }
+
+    /**
+     * 清空所有缓存数据。
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 获取缓存中的数据条目数量。
+     * 结果可能包含已过期但尚未清理的条目，需要准确数量时先调用 {@link #cleanUp()}。
+     *
+     * @return 缓存条目数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 清理所有已过期的条目。
+     */
+    public void cleanUp() {
+        long now = now();
+        for (Segment<V> segment : segments) {
+            segment.cleanUp(now);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Segment<V>[] newSegments(int segmentCount) {
+        return new Segment[segmentCount];
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        // 高 32 位选择分段，低 32 位用于分段内的槽位
+        return segments[(int) (hash >>> 32) & segmentMask];
+    }
+
+    private long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * MurmurHash3 的 64 位混淆函数，使连续的 ID 均匀分布到各分段与槽位。
+     */
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static boolean isExpired(long expireAt, long now) {
+        return expireAt != NO_EXPIRY && now - expireAt >= 0;
+    }
+
+    /**
+     * 开放寻址哈希表，槽位的值为 null 表示空槽位。
+     * 各数组长度相同且在创建后不变，扩容时整体替换，保证乐观读看到的数组始终一致。
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+        private final long[] expireAts;
+        private final byte[] referenced;
+        private final int mask;
+
+        private Table(int length) {
+            this.keys = new long[length];
+            this.values = new Object[length];
+            this.expireAts = new long[length];
+            this.referenced = new byte[length];
+            this.mask = length - 1;
+        }
+
+        /**
+         * 查找 key 所在的槽位。
+         * 探测次数以表长为上限，乐观读期间表被并发修改时也不会无限循环。
+         *
+         * @return 槽位下标，不存在返回 -1
+         */
+        private int indexOf(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (values[index] == null) {
+                    return -1;
+                }
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 缓存分段。
+     */
+    private static final class Segment<V> {
+
+        private final StampedLock lock = new StampedLock();
+
+        /**
+         * 分段容量上限。
+         */
+        private final int maximumSize;
+
+        private Table table = new Table(INITIAL_TABLE_SIZE);
+
+        private int count;
+
+        /**
+         * CLOCK 淘汰指针。
+         */
+        private int clockHand;
+
+        private Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V get(long key, long hash, long now) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Table t = table;
+                int index = t.indexOf(key, hash);
+                Object value = index >= 0 ? t.values[index] : null;
+                long expireAt = index >= 0 ? t.expireAts[index] : NO_EXPIRY;
+                if (lock.validate(stamp)) {
+                    return (V) visit(t, index, value, expireAt, now);
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                Table t = table;
+                int index = t.indexOf(key, hash);
+                if (index < 0) {
+                    return null;
+                }
+                return (V) visit(t, index, t.values[index], t.expireAts[index], now);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * 检查读到的条目是否有效，有效时设置访问标记。
+         * 访问标记在锁外写入，与淘汰之间的竞争只影响淘汰的精确度，不影响正确性。
+         */
+        private static Object visit(Table t, int index, Object value, long expireAt, long now) {
+            if (value == null || isExpired(expireAt, now)) {
+                return null;
+            }
+            if (t.referenced[index] == 0) {
+                t.referenced[index] = 1;
+            }
+            return value;
+        }
+
+        private void put(long key, long hash, Object value, long expireAt, long now) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = t.indexOf(key, hash);
+                if (index >= 0) {
+                    t.values[index] = value;
+                    t.expireAts[index] = expireAt;
+                    t.referenced[index] = 1;
+                    return;
+                }
+
+                if (count >= maximumSize) {
+                    evict(t, now);
+                } else if (count >= (t.mask + 1) / 4 * 3 && t.mask + 1 < MAXIMUM_TABLE_SIZE) {
+                    t = resize(t);
+                }
+
+                index = (int) hash & t.mask;
+                while (t.values[index] != null) {
+                    index = (index + 1) & t.mask;
+                }
+                t.keys[index] = key;
+                t.values[index] = value;
+                t.expireAts[index] = expireAt;
+                t.referenced[index] = 0;
+                count++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private boolean remove(long key, long hash, long now) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = t.indexOf(key, hash);
+                if (index < 0) {
+                    return false;
+                }
+                boolean expired = isExpired(t.expireAts[index], now);
+                delete(t, index);
+                return !expired;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(INITIAL_TABLE_SIZE);
+                count = 0;
+                clockHand = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            long stamp = lock.tryOptimisticRead();
+            int size = count;
+            if (lock.validate(stamp)) {
+                return size;
+            }
+            stamp = lock.readLock();
+            try {
+                return count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void cleanUp(long now) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = 0;
+                while (index <= t.mask) {
+                    if (t.values[index] != null && isExpired(t.expireAts[index], now)) {
+                        // 回移删除可能把后续条目移入当前槽位，因此不前进
+                        delete(t, index);
+                    } else {
+                        index++;
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * 按 CLOCK 算法淘汰一个条目，已过期的条目直接淘汰。
+         */
+        private void evict(Table t, long now) {
+            int hand = clockHand;
+            // 最多扫描两轮：第一轮清除访问标记，第二轮必然找到淘汰对象
+            for (int scanned = 0; scanned <= 2 * (t.mask + 1); scanned++) {
+                if (t.values[hand] != null) {
+                    if (t.referenced[hand] == 0 || isExpired(t.expireAts[hand], now)) {
+                        delete(t, hand);
+                        clockHand = hand;
+                        return;
+                    }
+                    t.referenced[hand] = 0;
+                }
+                hand = (hand + 1) & t.mask;
+            }
+            clockHand = hand;
+        }
+
+        /**
+         * 删除指定槽位的条目，并把同一探测链上的后续条目回移，避免使用墓碑标记。
+         */
+        private void delete(Table t, int index) {
+            int hole = index;
+            int next = (hole + 1) & t.mask;
+            while (t.values[next] != null) {
+                int home = (int) hash(t.keys[next]) & t.mask;
+                // 条目的初始槽位不在 (hole, next] 区间内时，才能移动到空洞处
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    t.keys[hole] = t.keys[next];
+                    t.values[hole] = t.values[next];
+                    t.expireAts[hole] = t.expireAts[next];
+                    t.referenced[hole] = t.referenced[next];
+                    hole = next;
+                }
+                next = (next + 1) & t.mask;
+            }
+            t.keys[hole] = 0L;
+            t.values[hole] = null;
+            t.expireAts[hole] = 0L;
+            t.referenced[hole] = 0;
+            count--;
+        }
+
+        private Table resize(Table old) {
+            Table t = new Table((old.mask + 1) << 1);
+            for (int i = 0; i <= old.mask; i++) {
+                if (old.values[i] == null) {
+                    continue;
+                }
+                int index = (int) hash(old.keys[i]) & t.mask;
+                while (t.values[index] != null) {
+                    index = (index + 1) & t.mask;
+                }
+                t.keys[index] = old.keys[i];
+                t.values[index] = old.values[i];
+                t.expireAts[index] = old.expireAts[i];
+                t.referenced[index] = old.referenced[i];
+            }
+            table = t;
+            clockHand = 0;
+            return t;
+        }
+    }
+}
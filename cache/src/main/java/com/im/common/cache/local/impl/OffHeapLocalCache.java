@@ -0,0 +1,512 @@
+package com.im.common.cache.local.impl;
+
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.serialize.ProtostuffCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 堆外本地缓存实现。
+ *
+ * <p>键和值经 Protostuff 序列化后存放在直接内存（DirectByteBuffer）中，堆上只保留每个分段的基本类型数组索引，
+ * 因此无论缓存多少条目，堆占用与 GC 压力基本保持不变，适用于数百万级的会话、用户资料等数据。</p>
+ *
+ * <p>缓存按键的哈希划分为多个分段，每个分段拥有独立的读写锁、一块固定大小的环形内存块和开放寻址哈希索引，
+ * 读操作可以在不同分段上并行执行。分段内存写满时从最早写入的条目开始淘汰（FIFO），
+ * 被覆盖或删除的条目占用的空间在淘汰指针经过时回收；过期条目在读取或淘汰时清理。</p>
+ *
+ * <p>键的相等性按序列化后的字节判断，值每次读取都会反序列化为新对象。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.local.type=offheap 时启用此实现，
+ * 堆外内存总量由 cache.local.offheap.capacity-bytes 配置（默认 256MB），分段数由 cache.local.offheap.segments 配置（默认 16）。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.type", havingValue = "offheap")
+public class OffHeapLocalCache implements LocalCache {
+
+    /**
+     * 表示永不过期的过期时间。
+     */
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final Segment[] segments;
+
+    /**
+     * 选择分段时右移的位数，使用哈希值的高位选择分段，低位用于分段内的索引。
+     */
+    private final int segmentShift;
+
+    /**
+     * 时间基准，过期时间均为相对该基准的纳秒数。
+     */
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * 构造函数。
+     *
+     * @param capacityBytes 堆外内存总量（字节）
+     * @param segmentCount  分段数，会向上取整为 2 的幂
+     * @throws IllegalArgumentException 如果参数不合法或单个分段超过 2GB
+     */
+    public OffHeapLocalCache(@Value("${cache.local.offheap.capacity-bytes:268435456}") long capacityBytes,
+                             @Value("${cache.local.offheap.segments:16}") int segmentCount) {
+        if (segmentCount <= 0 || segmentCount > (1 << 16)) {
+            throw new IllegalArgumentException("Segment count must be between 1 and 65536");
+        }
+        int segmentSize = segmentCount == 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        long segmentCapacity = capacityBytes / segmentSize;
+        if (segmentCapacity < Segment.HEADER_SIZE || segmentCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity per segment must be between " + Segment.HEADER_SIZE + " bytes and 2GB");
+        }
+
+        this.segments = new Segment[segmentSize];
+        for (int i = 0; i < segmentSize; i++) {
+            segments[i] = new Segment((int) segmentCapacity);
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentSize);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value, Duration ttl) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        long expireAt = NO_EXPIRY;
+        if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+            long now = now();
+            long ttlNanos = ttl.toNanos();
+            expireAt = ttlNanos >= NO_EXPIRY - now ? NO_EXPIRY : now + ttlNanos;
+        }
+
+        byte[] keyBytes = ProtostuffCodec.serialize(key);
+        byte[] valueBytes = ProtostuffCodec.serialize(value);
+        int hash = hash(keyBytes);
+        segmentFor(hash).put(hash, keyBytes, valueBytes, expireAt);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        byte[] keyBytes = ProtostuffCodec.serialize(key);
+        int hash = hash(keyBytes);
+        byte[] valueBytes = segmentFor(hash).get(hash, keyBytes, now());
+        return valueBytes != null ? (V) ProtostuffCodec.deserialize(valueBytes) : null;
+    }
+
+    @Override
+    public <K, V> V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        byte[] keyBytes = ProtostuffCodec.serialize(key);
+        int hash = hash(keyBytes);
+        return segmentFor(hash).remove(hash, keyBytes, now());
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        if (key == null) {
+            return false;
+        }
+        byte[] keyBytes = ProtostuffCodec.serialize(key);
+        int hash = hash(keyBytes);
+        return segmentFor(hash).contains(hash, keyBytes, now());
+    }
+
+    private Segment segmentFor(int hash) {
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * 计算键字节的哈希值，并打散高低位。
+     */
+    private static int hash(byte[] keyBytes) {
+        int h = Arrays.hashCode(keyBytes) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 缓存分段。
+     *
+     * <p>条目在内存块中的布局：</p>
+     * <pre>
+     * | 总长度(4) | 哈希(4) | 过期时间(8) | 是否有效(1) | 键长度(4) | 键字节 | 值字节 |
+     * </pre>
+     */
+    private static final class Segment {
+
+        private static final int HEADER_SIZE = 21;
+        private static final int HASH_OFFSET = 4;
+        private static final int EXPIRE_OFFSET = 8;
+        private static final int LIVE_OFFSET = 16;
+        private static final int KEY_LENGTH_OFFSET = 17;
+
+        /**
+         * 环形内存块末尾的回绕标记，表示其后的空间未使用。
+         */
+        private static final int WRAP_MARKER = -1;
+
+        /**
+         * 索引中表示空槽位的偏移量。
+         */
+        private static final int EMPTY = -1;
+
+        private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ByteBuffer slab;
+        private final int capacity;
+
+        /**
+         * 最早写入的条目位置（淘汰指针）。
+         */
+        private int head;
+
+        /**
+         * 下一个条目的写入位置。
+         */
+        private int tail;
+
+        /**
+         * 已占用的字节数（含已失效但尚未回收的条目与回绕浪费的空间）。
+         */
+        private long used;
+
+        /**
+         * 开放寻址（线性探测）索引：条目偏移量与哈希值。
+         */
+        private int[] indexOffsets;
+        private int[] indexHashes;
+        private int count;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.slab = ByteBuffer.allocateDirect(capacity);
+            resetIndex(INITIAL_INDEX_CAPACITY);
+        }
+
+        private byte[] get(int hash, byte[] keyBytes, long now) {
+            int offset;
+            lock.readLock().lock();
+            try {
+                int slot = findSlot(hash, keyBytes);
+                if (slot < 0) {
+                    return null;
+                }
+                offset = indexOffsets[slot];
+                if (!isExpired(offset, now)) {
+                    return readValue(offset);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            removeExpired(hash, keyBytes, offset, now);
+            return null;
+        }
+
+        private boolean contains(int hash, byte[] keyBytes, long now) {
+            lock.readLock().lock();
+            try {
+                int slot = findSlot(hash, keyBytes);
+                return slot >= 0 && !isExpired(indexOffsets[slot], now);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void put(int hash, byte[] keyBytes, byte[] valueBytes, long expireAt) {
+            long length = (long) HEADER_SIZE + keyBytes.length + valueBytes.length;
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(hash, keyBytes);
+                if (slot >= 0) {
+                    invalidate(slot);
+                }
+                if (length > capacity) {
+                    // 条目超过分段容量，不缓存
+                    return;
+                }
+
+                int offset = allocate((int) length);
+                slab.putInt(offset, (int) length);
+                slab.putInt(offset + HASH_OFFSET, hash);
+                slab.putLong(offset + EXPIRE_OFFSET, expireAt);
+                slab.put(offset + LIVE_OFFSET, (byte) 1);
+                slab.putInt(offset + KEY_LENGTH_OFFSET, keyBytes.length);
+                slab.put(offset + HEADER_SIZE, keyBytes);
+                slab.put(offset + HEADER_SIZE + keyBytes.length, valueBytes);
+                insertIndex(hash, offset);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private boolean remove(int hash, byte[] keyBytes, long now) {
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(hash, keyBytes);
+                if (slot < 0) {
+                    return false;
+                }
+                boolean expired = isExpired(indexOffsets[slot], now);
+                invalidate(slot);
+                return !expired;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 移除读锁下发现的过期条目。释放读锁到获取写锁之间该 key 可能已被重新写入，
+         * 因此仅当索引仍指向同一偏移量且该条目仍已过期时才使其失效。
+         */
+        private void removeExpired(int hash, byte[] keyBytes, int offset, long now) {
+            lock.writeLock().lock();
+            try {
+                int slot = findSlot(hash, keyBytes);
+                if (slot >= 0 && indexOffsets[slot] == offset && isExpired(offset, now)) {
+                    invalidate(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void clear() {
+            lock.writeLock().lock();
+            try {
+                head = 0;
+                tail = 0;
+                used = 0;
+                resetIndex(INITIAL_INDEX_CAPACITY);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private long size() {
+            lock.readLock().lock();
+            try {
+                return count;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * 在环形内存块中分配空间，空间不足时从头部淘汰条目。
+         */
+        private int allocate(int length) {
+            while (true) {
+                if (used == 0) {
+                    head = 0;
+                    tail = 0;
+                }
+                boolean full = tail == head && used > 0;
+                if (tail >= head && !full) {
+                    // 可用空间为 [tail, capacity) 与 [0, head)
+                    if (capacity - tail >= length) {
+                        return advanceTail(length);
+                    }
+                    // 末尾空间不足，标记回绕并从头开始写入
+                    if (capacity - tail >= Integer.BYTES) {
+                        slab.putInt(tail, WRAP_MARKER);
+                    }
+                    used += capacity - tail;
+                    tail = 0;
+                    continue;
+                }
+                // 可用空间为 [tail, head)
+                if (head - tail >= length) {
+                    return advanceTail(length);
+                }
+                evictHead();
+            }
+        }
+
+        private int advanceTail(int length) {
+            int offset = tail;
+            tail += length;
+            used += length;
+            return offset;
+        }
+
+        /**
+         * 淘汰头部条目，或跳过末尾回绕浪费的空间。
+         */
+        private void evictHead() {
+            if (capacity - head < Integer.BYTES || slab.getInt(head) == WRAP_MARKER) {
+                used -= capacity - head;
+                head = 0;
+            } else {
+                int length = slab.getInt(head);
+                if (slab.get(head + LIVE_OFFSET) == 1) {
+                    removeIndex(slotOfOffset(slab.getInt(head + HASH_OFFSET), head));
+                }
+                used -= length;
+                head += length;
+            }
+            if (used == 0) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        private boolean isExpired(int offset, long now) {
+            long expireAt = slab.getLong(offset + EXPIRE_OFFSET);
+            return expireAt != NO_EXPIRY && now - expireAt >= 0;
+        }
+
+        private byte[] readValue(int offset) {
+            int keyLength = slab.getInt(offset + KEY_LENGTH_OFFSET);
+            int valueLength = slab.getInt(offset) - HEADER_SIZE - keyLength;
+            byte[] value = new byte[valueLength];
+            slab.get(offset + HEADER_SIZE + keyLength, value);
+            return value;
+        }
+
+        /**
+         * 将槽位对应的条目标记为失效并从索引中移除，其空间在淘汰指针经过时回收。
+         */
+        private void invalidate(int slot) {
+            slab.put(indexOffsets[slot] + LIVE_OFFSET, (byte) 0);
+            removeIndex(slot);
+        }
+
+        private int findSlot(int hash, byte[] keyBytes) {
+            int mask = indexOffsets.length - 1;
+            int slot = hash & mask;
+            while (indexOffsets[slot] != EMPTY) {
+                if (indexHashes[slot] == hash && keyEquals(indexOffsets[slot], keyBytes)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int slotOfOffset(int hash, int offset) {
+            int mask = indexOffsets.length - 1;
+            int slot = hash & mask;
+            while (indexOffsets[slot] != offset) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean keyEquals(int offset, byte[] keyBytes) {
+            if (slab.getInt(offset + KEY_LENGTH_OFFSET) != keyBytes.length) {
+                return false;
+            }
+            int start = offset + HEADER_SIZE;
+            for (int i = 0; i < keyBytes.length; i++) {
+                if (slab.get(start + i) != keyBytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void insertIndex(int hash, int offset) {
+            if ((count + 1) * 2 > indexOffsets.length) {
+                resizeIndex();
+            }
+            int mask = indexOffsets.length - 1;
+            int slot = hash & mask;
+            while (indexOffsets[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            indexOffsets[slot] = offset;
+            indexHashes[slot] = hash;
+            count++;
+        }
+
+        /**
+         * 移除索引槽位，并将后续探测链上的条目前移（backward shift），无需墓碑标记。
+         */
+        private void removeIndex(int slot) {
+            int mask = indexOffsets.length - 1;
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (indexOffsets[next] == EMPTY) {
+                    break;
+                }
+                int ideal = indexHashes[next] & mask;
+                // 理想位置在 (hole, next] 区间内（考虑回绕）的条目不能前移
+                boolean stays = hole <= next ? (hole < ideal && ideal <= next) : (hole < ideal || ideal <= next);
+                if (!stays) {
+                    indexOffsets[hole] = indexOffsets[next];
+                    indexHashes[hole] = indexHashes[next];
+                    hole = next;
+                }
+            }
+            indexOffsets[hole] = EMPTY;
+            count--;
+        }
+
+        private void resizeIndex() {
+            int[] oldOffsets = indexOffsets;
+            int[] oldHashes = indexHashes;
+            resetIndex(oldOffsets.length << 1);
+            for (int i = 0; i < oldOffsets.length; i++) {
+                if (oldOffsets[i] != EMPTY) {
+                    insertIndex(oldHashes[i], oldOffsets[i]);
+                }
+            }
+        }
+
+        private void resetIndex(int indexCapacity) {
+            indexOffsets = new int[indexCapacity];
+            indexHashes = new int[indexCapacity];
+            Arrays.fill(indexOffsets, EMPTY);
+            count = 0;
+        }
+    }
+}
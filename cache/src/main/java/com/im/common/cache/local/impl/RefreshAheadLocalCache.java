@@ -0,0 +1,352 @@
+package com.im.common.cache.local.impl;
+
+import com.im.common.cache.local.LocalCache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 写入后异步刷新（refresh-ahead）的本地缓存装饰器。
+ * 通过 loader 加载的条目在写入超过 refreshAfterWrite 后，下一次读取会在后台线程池中重新加载，
+ * 重新加载完成前继续返回旧值，因此热点条目的调用方不会感知加载延迟。
+ *
+ * <p>同一 key 同时只有一个刷新任务；线程池和队列都已满时直接放弃本次刷新，旧值继续有效，下一次读取再尝试。
+ * 刷新结果为 null 时删除该条目；刷新失败时保留旧值。直接调用 {@link #put(Object, Object)} 写入的条目没有 loader，不会被刷新。
+ * 被装饰的缓存需要在堆内保存对象引用（如 Guava、Caffeine、时间轮实现），不能是序列化存储的堆外缓存。</p>
+ *
+ * <p>该类不是 Spring 组件，使用方可将其声明为 @Bean，容器关闭时会调用 {@link #close()} 停止刷新线程：</p>
+ * <pre>
+ * &#64;Bean
+ * public RefreshAheadLocalCache userProfileCache() {
+ *     return new RefreshAheadLocalCache(new CaffeineLocalCache(50000), Duration.ofSeconds(30), Duration.ofMinutes(5), 4, 1000);
+ * }
+ * </pre>
+ */
+public class RefreshAheadLocalCache implements LocalCache, AutoCloseable {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    /**
+     * 按 key 分段的写锁数量，必须为 2 的幂。
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 被装饰的本地缓存，保存带写入时间的条目。
+     */
+    private final LocalCache delegate;
+
+    /**
+     * 写入后触发刷新的时间（纳秒）。
+     */
+    private final long refreshAfterWriteNanos;
+
+    /**
+     * 通过 loader 加载的条目的过期时间，为 null 时不设置过期时间。
+     */
+    private final Duration expireAfterWrite;
+
+    /**
+     * 有界刷新线程池。
+     */
+    private final ThreadPoolExecutor refresher;
+
+    /**
+     * 正在刷新的 key，用于合并同一 key 的并发刷新。
+     */
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 按 key 分段的写锁。通过本类的写入与刷新结果的比较写入持有同一把锁，刷新结果不会覆盖比较之后的写入。
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * 构造函数。
+     *
+     * @param delegate          被装饰的本地缓存
+     * @param refreshAfterWrite 写入后触发刷新的时间
+     * @param expireAfterWrite  通过 loader 加载的条目的过期时间，应大于 refreshAfterWrite，为 null 时不设置过期时间
+     * @param refreshThreads    刷新线程数
+     * @param queueCapacity     刷新任务队列容量
+     * @throws IllegalArgumentException 如果参数不合法
+     */
+    public RefreshAheadLocalCache(LocalCache delegate, Duration refreshAfterWrite, Duration expireAfterWrite,
+                                  int refreshThreads, int queueCapacity) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        if (refreshAfterWrite == null || refreshAfterWrite.isZero() || refreshAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("Refresh after write must be positive");
+        }
+        if (refreshThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Refresh threads and queue capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.expireAfterWrite = expireAfterWrite;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        int poolId = POOL_SEQUENCE.incrementAndGet();
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.refresher = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "cache-refresh-ahead-" + poolId + "-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.refresher.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        synchronized (lockFor(key)) {
+            delegate.put(key, new Stamped(value, System.nanoTime(), null));
+        }
+    }
+
+    @Override
+    public <K, V> void put(K key, V value, Duration ttl) {
+        synchronized (lockFor(key)) {
+            delegate.put(key, new Stamped(value, System.nanoTime(), null), ttl);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        Stamped stamped = delegate.get(key);
+        if (stamped == null) {
+            return null;
+        }
+        if (stamped.loader != null && isStale(stamped)) {
+            refresh(key, stamped, stamped.loader);
+        }
+        return (V) stamped.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        Function<Object, Object> objectLoader = (Function<Object, Object>) loader;
+        Stamped stamped = delegate.get(key);
+        if (stamped == null) {
+            if (expireAfterWrite == null) {
+                // 无需设置过期时间时使用被装饰缓存的原子加载，合并同一 key 的并发加载
+                stamped = delegate.get(key, k -> stamp(objectLoader.apply(k), objectLoader));
+            } else {
+                stamped = stamp(objectLoader.apply(key), objectLoader);
+                if (stamped != null) {
+                    putStamped(key, stamped);
+                }
+            }
+            if (stamped == null) {
+                return null;
+            }
+        } else if (stamped.loader != null && isStale(stamped)) {
+            refresh(key, stamped, objectLoader);
+        }
+        return (V) stamped.value;
+    }
+
+    /**
+     * 未命中的 key 通过一次 bulkLoader 调用同步加载；需要刷新的命中 key 合并为一次后台 bulkLoader 调用。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        Function<Object, Object> singleLoader = key -> {
+            Map<? extends K, ? extends V> loaded = bulkLoader.apply(Collections.singleton((K) key));
+            return loaded != null ? loaded.get(key) : null;
+        };
+
+        Map<K, V> result = new HashMap<>((int) (keys.size() / 0.75f) + 1);
+        Set<K> missing = new LinkedHashSet<>();
+        Map<K, Stamped> stale = new HashMap<>();
+        for (K key : keys) {
+            Stamped stamped = delegate.get(key);
+            if (stamped == null) {
+                missing.add(key);
+                continue;
+            }
+            result.put(key, (V) stamped.value);
+            if (stamped.loader != null && isStale(stamped) && refreshing.add(key)) {
+                stale.put(key, stamped);
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            submitRefresh(stale.keySet(), () -> {
+                Map<? extends K, ? extends V> loaded = bulkLoader.apply(new LinkedHashSet<>(stale.keySet()));
+                stale.forEach((key, old) -> applyRefresh(key, old, loaded != null ? loaded.get(key) : null, singleLoader));
+            });
+        }
+
+        if (!missing.isEmpty()) {
+            Map<? extends K, ? extends V> loaded = bulkLoader.apply(missing);
+            if (loaded != null) {
+                for (K key : missing) {
+                    V value = loaded.get(key);
+                    if (value != null) {
+                        putStamped(key, stamp(value, singleLoader));
+                        result.put(key, value);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <K, V> V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        synchronized (lockFor(key)) {
+            return delegate.remove(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public long size() {
+        return delegate.size();
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        return delegate.containsKey(key);
+    }
+
+    /**
+     * 获取当前排队中的刷新任务数量。
+     *
+     * @return 排队中的刷新任务数量
+     */
+    public int pendingRefreshCount() {
+        return refresher.getQueue().size();
+    }
+
+    /**
+     * 停止刷新线程，正在执行的刷新任务会继续完成，排队中的任务被丢弃。
+     */
+    @Override
+    public void close() {
+        // 不使用 shutdownNow，避免中断正在执行的刷新
+        refresher.shutdown();
+        refresher.getQueue().clear();
+        try {
+            refresher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isStale(Stamped stamped) {
+        return System.nanoTime() - stamped.writeNanos >= refreshAfterWriteNanos;
+    }
+
+    private Stamped stamp(Object value, Function<Object, Object> loader) {
+        return value != null ? new Stamped(value, System.nanoTime(), loader) : null;
+    }
+
+    private void putStamped(Object key, Stamped stamped) {
+        synchronized (lockFor(key)) {
+            if (expireAfterWrite != null) {
+                delegate.put(key, stamped, expireAfterWrite);
+            } else {
+                delegate.put(key, stamped);
+            }
+        }
+    }
+
+    private Object lockFor(Object key) {
+        int h = key != null ? key.hashCode() : 0;
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private void refresh(Object key, Stamped old, Function<Object, Object> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        submitRefresh(Collections.singleton(key), () -> applyRefresh(key, old, loader.apply(key), loader));
+    }
+
+    private void submitRefresh(Collection<?> keys, Runnable task) {
+        try {
+            refresher.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    // 刷新失败时保留旧值，等待下一次读取重试
+                    System.err.println("Failed to refresh local cache, keys: " + keys + ", error: " + e.getMessage());
+                } finally {
+                    refreshing.removeAll(keys);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 线程池已满或已关闭，放弃本次刷新
+            refreshing.removeAll(keys);
+        }
+    }
+
+    /**
+     * 写入刷新结果。若刷新期间条目已被其他写入替换或删除，则放弃结果，避免覆盖更新的值；
+     * 比较与写入在该 key 的分段锁内完成，与本类的其他写入互斥。
+     */
+    private void applyRefresh(Object key, Stamped old, Object value, Function<Object, Object> loader) {
+        synchronized (lockFor(key)) {
+            Stamped current = delegate.get(key);
+            if (current != old) {
+                return;
+            }
+            if (value == null) {
+                delegate.remove(key);
+            } else {
+                putStamped(key, stamp(value, loader));
+            }
+        }
+    }
+
+    /**
+     * 带写入时间与加载函数的缓存条目。
+     */
+    private static final class Stamped {
+
+        private final Object value;
+        private final long writeNanos;
+
+        /**
+         * 加载函数，直接写入的条目为 null，不参与刷新。
+         */
+        private final Function<Object, Object> loader;
+
+        private Stamped(Object value, long writeNanos, Function<Object, Object> loader) {
+            this.value = value;
+            this.writeNanos = writeNanos;
+            this.loader = loader;
+        }
+    }
+}
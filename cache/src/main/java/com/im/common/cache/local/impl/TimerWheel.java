@@ -0,0 +1,184 @@
+package com.im.common.cache.local.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮，用于本地缓存条目的过期清理。
+ *
+ * <p>共 5 层，每层的槽位跨度依次约为 1 秒、1 分钟、1 小时、1.6 天和 6.5 天，
+ * 条目按剩余时间落入对应层级的槽位，添加和移除都是 O(1)。
+ * 时间推进时，到期槽位中的条目若已过期则回调清理，否则重新放入更低层级的槽位。</p>
+ *
+ * <p>非线程安全，由调用方在持有锁的情况下访问。</p>
+ */
+class TimerWheel {
+
+    /**
+     * 每层的槽位数（均为 2 的幂）。
+     */
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    /**
+     * 每层槽位的时间跨度（纳秒），均为 2 的幂，最后一个元素表示最高层的总跨度。
+     */
+    private static final long[] SPANS = {
+            1L << 30, // 约 1.07 秒
+            1L << 36, // 约 1.14 分钟
+            1L << 42, // 约 1.22 小时
+            1L << 47, // 约 1.63 天
+            1L << 49, // 约 6.5 天
+            1L << 49, // 溢出层
+    };
+
+    /**
+     * 每层槽位跨度对应的位移量。
+     */
+    private static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    private final Node[][] wheel;
+
+    /**
+     * 时间轮当前的时间（System.nanoTime）。
+     */
+    private long nanos;
+
+    TimerWheel(long nanos) {
+        this.nanos = nanos;
+        this.wheel = new Node[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = new Node[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                Node sentinel = new Node(0L);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 将条目放入时间轮。
+     *
+     * @param node 条目，其过期时间不可为“永不过期”
+     */
+    void schedule(Node node) {
+        Node sentinel = findBucket(node.time);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    /**
+     * 将条目从时间轮中移除，条目不在时间轮中时不做任何处理。
+     *
+     * @param node 条目
+     */
+    void deschedule(Node node) {
+        if (node.next != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * 将时间轮推进到指定时间，对已过期的条目执行回调（回调前条目已从时间轮中移除）。
+     *
+     * @param currentTime 当前时间（System.nanoTime）
+     * @param onExpired   过期回调
+     */
+    void advance(long currentTime, Consumer<Node> onExpired) {
+        long previousTime = nanos;
+        if (currentTime - previousTime <= 0) {
+            return;
+        }
+        nanos = currentTime;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previousTime >>> SHIFT[i];
+            long currentTicks = currentTime >>> SHIFT[i];
+            long delta = currentTicks - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+            expire(i, previousTicks, delta, onExpired);
+        }
+    }
+
+    /**
+     * 清空时间轮。
+     */
+    void clear() {
+        for (Node[] buckets : wheel) {
+            for (Node sentinel : buckets) {
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 处理指定层级中从 previousTicks 开始的 delta 个时间刻度对应的槽位。
+     */
+    private void expire(int level, long previousTicks, long delta, Consumer<Node> onExpired) {
+        Node[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(delta + 1, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = 0; i < steps; i++) {
+            Node sentinel = buckets[(start + i) & mask];
+            Node node = sentinel.next;
+            // 先摘下整个槽位，再逐个过期或重新调度
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (node != sentinel) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.time - nanos <= 0) {
+                    onExpired.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Node findBucket(long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >>> SHIFT[i];
+                return wheel[i][(int) (ticks & (wheel[i].length - 1))];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    /**
+     * 时间轮中的条目，各槽位以哨兵节点组成双向循环链表。
+     */
+    static class Node {
+
+        /**
+         * 过期时间（System.nanoTime）。
+         */
+        final long time;
+
+        Node prev;
+        Node next;
+
+        Node(long time) {
+            this.time = time;
+        }
+    }
+}
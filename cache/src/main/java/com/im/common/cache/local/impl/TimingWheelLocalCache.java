@@ -0,0 +1,322 @@
+package com.im.common.cache.local.impl;
+
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.snapshot.SnapshotableCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于单一并发哈希表与分层时间轮的本地缓存实现。
+ *
+ * <p>所有条目（无论 TTL 是否相同）都保存在同一个 ConcurrentHashMap 中，每个条目记录自己的过期时间，
+ * 查找、删除的开销与使用了多少种 TTL 无关；过期条目由分层时间轮清理，容量由一个全局上限约束。</p>
+ *
+ * <p>读操作无锁：命中后只检查条目自身的过期时间并设置访问标记；写操作在一把锁内维护时间轮与淘汰队列。
+ * 超出容量时按 CLOCK 算法淘汰：从最早写入的条目开始，最近被访问过的条目获得一次保留机会。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.local.type=timing-wheel 时启用此实现，容量上限由 cache.local.maximum-size 配置（默认 10000）。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.type", havingValue = "timing-wheel")
+public class TimingWheelLocalCache implements LocalCache, SnapshotableCache {
+
+    /**
+     * 表示永不过期的过期时间。
+     */
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /**
+     * 读操作触发过期清理的最小间隔。
+     */
+    private static final long CLEAN_UP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 缓存数据。
+     */
+    private final ConcurrentHashMap<Object, Entry> data = new ConcurrentHashMap<>();
+
+    /**
+     * 全局容量上限。
+     */
+    private final long maximumSize;
+
+    /**
+     * 保护时间轮与淘汰队列的锁。
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * 时间基准，缓存内部的时间均为相对该基准的纳秒数，保证为非负数。
+     */
+    private final long originNanos = System.nanoTime();
+
+    private final TimerWheel timerWheel = new TimerWheel(0L);
+
+    /**
+     * 按写入顺序排列的淘汰队列哨兵节点。
+     */
+    private final Entry clockHead = new Entry(null, null, NO_EXPIRY);
+
+    private volatile long lastCleanUpNanos;
+
+    /**
+     * 构造函数，使用默认容量上限 10000。
+     */
+    public TimingWheelLocalCache() {
+        this(10000);
+    }
+
+    /**
+     * 构造函数。
+     *
+     * @param maximumSize 全局容量上限
+     * @throws IllegalArgumentException 如果容量上限不为正数
+     */
+    @Autowired
+    public TimingWheelLocalCache(@Value("${cache.local.maximum-size:10000}") long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        clockHead.clockPrev = clockHead;
+        clockHead.clockNext = clockHead;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value, Duration ttl) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        long now = now();
+        long expireAt = NO_EXPIRY;
+        if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+            // 防止溢出
+            long ttlNanos = ttl.toNanos();
+            expireAt = ttlNanos >= NO_EXPIRY - now ? NO_EXPIRY : now + ttlNanos;
+        }
+
+        Entry entry = new Entry(key, value, expireAt);
+        evictionLock.lock();
+        try {
+            timerWheel.advance(now, this::onExpired);
+            Entry old = data.put(key, entry);
+            if (old != null) {
+                unlink(old);
+            }
+            link(entry);
+            evictOverflow();
+            lastCleanUpNanos = now;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        long now = now();
+        if (entry.isExpired(now)) {
+            cleanUp(now);
+            return null;
+        }
+        if (!entry.accessed) {
+            entry.accessed = true;
+        }
+        if (now - lastCleanUpNanos > CLEAN_UP_INTERVAL_NANOS) {
+            cleanUp(now);
+        }
+        return (V) entry.value;
+    }
+
+    @Override
+    public <K, V> V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        if (key == null) {
+            return false;
+        }
+        evictionLock.lock();
+        try {
+            Entry entry = data.remove(key);
+            if (entry == null) {
+                return false;
+            }
+            unlink(entry);
+            return !entry.isExpired(now());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            data.clear();
+            timerWheel.clear();
+            clockHead.clockPrev = clockHead;
+            clockHead.clockNext = clockHead;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        long now = now();
+        evictionLock.lock();
+        try {
+            timerWheel.advance(now, this::onExpired);
+            lastCleanUpNanos = now;
+        } finally {
+            evictionLock.unlock();
+        }
+        return data.size();
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void forEachEntry(EntryVisitor visitor) {
+        long now = now();
+        for (Entry entry : data.values()) {
+            if (entry.isExpired(now)) {
+                continue;
+            }
+            Duration remainingTtl = entry.time == NO_EXPIRY ? null : Duration.ofNanos(entry.time - now);
+            visitor.visit(entry.key, entry.value, remainingTtl);
+        }
+    }
+
+    /**
+     * 尝试推进时间轮清理过期条目，锁被其他线程持有时直接返回，不阻塞读操作。
+     */
+    private void cleanUp(long now) {
+        if (evictionLock.tryLock()) {
+            try {
+                timerWheel.advance(now, this::onExpired);
+                lastCleanUpNanos = now;
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void onExpired(TimerWheel.Node node) {
+        Entry entry = (Entry) node;
+        data.remove(entry.key, entry);
+        unlinkClock(entry);
+    }
+
+    /**
+     * 超出容量时按 CLOCK 算法淘汰条目。
+     */
+    private void evictOverflow() {
+        while (data.size() > maximumSize) {
+            Entry victim = clockHead.clockNext;
+            if (victim == clockHead) {
+                return;
+            }
+            unlinkClock(victim);
+            if (victim.accessed) {
+                // 最近被访问过，清除访问标记后移到队尾，获得一次保留机会
+                victim.accessed = false;
+                linkClock(victim);
+                continue;
+            }
+            timerWheel.deschedule(victim);
+            data.remove(victim.key, victim);
+        }
+    }
+
+    private void link(Entry entry) {
+        linkClock(entry);
+        if (entry.time != NO_EXPIRY) {
+            timerWheel.schedule(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        unlinkClock(entry);
+        timerWheel.deschedule(entry);
+    }
+
+    private void linkClock(Entry entry) {
+        entry.clockPrev = clockHead.clockPrev;
+        entry.clockNext = clockHead;
+        clockHead.clockPrev.clockNext = entry;
+        clockHead.clockPrev = entry;
+    }
+
+    private void unlinkClock(Entry entry) {
+        if (entry.clockNext != null) {
+            entry.clockPrev.clockNext = entry.clockNext;
+            entry.clockNext.clockPrev = entry.clockPrev;
+            entry.clockPrev = null;
+            entry.clockNext = null;
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * 缓存条目，同时是时间轮节点与淘汰队列节点。
+     */
+    private static final class Entry extends TimerWheel.Node {
+
+        private final Object key;
+        private final Object value;
+
+        /**
+         * 访问标记，读操作无锁设置，淘汰时在锁内清除。
+         */
+        private volatile boolean accessed;
+
+        private Entry clockPrev;
+        private Entry clockNext;
+
+        private Entry(Object key, Object value, long expireAt) {
+            super(expireAt);
+            this.key = key;
+            this.value = value;
+        }
+
+        private boolean isExpired(long now) {
+            return time != NO_EXPIRY && now - time >= 0;
+        }
+    }
+}
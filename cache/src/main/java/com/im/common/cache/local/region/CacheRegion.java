@@ -0,0 +1,226 @@
+package com.im.common.cache.local.region;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.ResizableCache;
+import com.im.common.cache.local.size.SizeEstimator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 本地缓存区域。
+ * 每个区域是一个独立的 Caffeine Cache，拥有自己的容量上限、过期策略与统计信息，不同区域的数据不会相互淘汰。
+ * 区域由 {@link CacheRegionManager} 按配置创建；容量上限与默认过期时间可在运行时单独调整。
+ */
+public final class CacheRegion implements LocalCache, ResizableCache {
+
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final String name;
+
+    private final Cache<Object, Object> cache;
+
+    private final Policy.VarExpiration<Object, Object> varExpiration;
+
+    private final Policy.Eviction<Object, Object> eviction;
+
+    /**
+     * 写入后的默认过期时间（纳秒），不过期时为 {@link #NO_EXPIRY}。
+     */
+    private volatile long expireAfterWriteNanos;
+
+    /**
+     * 访问后的过期时间（纳秒），读取不延长过期时间时为 0。
+     */
+    private volatile long expireAfterAccessNanos;
+
+    /**
+     * 构造函数。
+     *
+     * @param name      区域名称
+     * @param spec      区域策略
+     * @param estimator 条目大小估算器，按字节预算淘汰时不能为 null
+     * @throws IllegalArgumentException 如果区域名称为空，或按字节预算淘汰但估算器为 null
+     */
+    public CacheRegion(String name, CacheRegionProperties.RegionSpec spec, SizeEstimator estimator) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Region name cannot be null or empty");
+        }
+        if (spec.getMaximumBytes() > 0 && estimator == null) {
+            throw new IllegalArgumentException("Size estimator cannot be null");
+        }
+        this.name = name;
+        setExpireAfterWrite(spec.getExpireAfterWrite());
+        setExpireAfterAccess(spec.getExpireAfterAccess());
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getMaximumBytes() > 0) {
+            builder.maximumWeight(spec.getMaximumBytes())
+                    .weigher((key, value) -> (int) Math.max(1L, Math.min(Integer.MAX_VALUE, estimator.estimate(key, value))));
+        } else {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        this.cache = builder.expireAfter(new RegionExpiry()).build();
+        this.varExpiration = cache.policy().expireVariably()
+                .orElseThrow(() -> new IllegalStateException("Variable expiration is not enabled"));
+        this.eviction = cache.policy().eviction()
+                .orElseThrow(() -> new IllegalStateException("Eviction is not enabled"));
+    }
+
+    /**
+     * 获取区域名称。
+     *
+     * @return 区域名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * 以指定的 TTL 写入，覆盖区域的默认过期时间；TTL 无效时使用区域的默认过期时间。
+     */
+    @Override
+    public <K, V> void put(K key, V value, Duration ttl) {
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            put(key, value);
+            return;
+        }
+        varExpiration.put(key, value, ttl.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        return (V) cache.getIfPresent(key);
+    }
+
+    /**
+     * 同一 key 的并发加载只会执行一次，加载耗时计入区域统计。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key, Function<? super K, ? extends V> loader) {
+        return (V) cache.get(key, k -> loader.apply((K) k));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys,
+                                   Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+        Map<Object, Object> result = cache.getAll(keys, missingKeys -> {
+            Set<K> missing = new LinkedHashSet<>();
+            missingKeys.forEach(k -> missing.add((K) k));
+            return (Map<Object, Object>) bulkLoader.apply(missing);
+        });
+        return (Map<K, V>) result;
+    }
+
+    @Override
+    public <K, V> V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        return cache.asMap().remove(key) != null;
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public long getMaximum() {
+        return eviction.getMaximum();
+    }
+
+    @Override
+    public void setMaximum(long maximum) {
+        eviction.setMaximum(maximum);
+    }
+
+    /**
+     * 调整写入后的默认过期时间，只影响之后写入的条目。
+     *
+     * @param expireAfterWrite 写入后过期时间，为 null、零或负数时不过期
+     */
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWriteNanos = isPositive(expireAfterWrite) ? expireAfterWrite.toNanos() : NO_EXPIRY;
+    }
+
+    /**
+     * 调整访问后的过期时间，只影响之后的读取。
+     *
+     * @param expireAfterAccess 访问后过期时间，为 null、零或负数时读取不延长过期时间
+     */
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccessNanos = isPositive(expireAfterAccess) ? expireAfterAccess.toNanos() : 0L;
+    }
+
+    /**
+     * 获取区域的统计信息快照。
+     *
+     * @return 统计信息
+     */
+    public CacheRegionStats stats() {
+        CacheStats stats = cache.stats();
+        return new CacheRegionStats(name, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.loadSuccessCount(), stats.loadFailureCount(),
+                stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1),
+                stats.evictionCount(), stats.evictionWeight(), cache.estimatedSize(), eviction.getMaximum());
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return duration != null && !duration.isZero() && !duration.isNegative();
+    }
+
+    /**
+     * 区域的默认过期策略，读取区域当前的过期配置。
+     */
+    private class RegionExpiry implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterWriteNanos;
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            long accessNanos = expireAfterAccessNanos;
+            return accessNanos > 0 ? accessNanos : currentDuration;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.im.common.cache.local.region;
+
+import com.im.common.cache.local.size.DefaultSizeEstimator;
+import com.im.common.cache.local.size.SizeEstimator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 本地缓存区域管理器。
+ * 按名称管理多个相互独立的 {@link CacheRegion}，例如 IMConstants.IM_CACHE_FRIEND、IM_CACHE_GROUP、IM_CACHE_GROUP_MEMBER_ID，
+ * 每个区域的容量、过期时间与淘汰方式由 {@link CacheRegionProperties} 配置，首次使用时创建。
+ *
+ * <p>各区域的命中率、加载耗时与淘汰次数通过 {@link #stats()} 获取，
+ * 并通过 JMX（com.im.common.cache:type=CacheRegionManager）提供，也可通过 JMX 调整区域容量。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：配置了 cache.local.type 时启用。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.type")
+public class CacheRegionManager implements CacheRegionManagerMXBean, InitializingBean, DisposableBean {
+
+    private static final String OBJECT_NAME = "com.im.common.cache:type=CacheRegionManager";
+
+    private final CacheRegionProperties properties;
+
+    private final ObjectProvider<SizeEstimator> estimatorProvider;
+
+    private final ConcurrentMap<String, CacheRegion> regions = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param properties        区域配置
+     * @param estimatorProvider 条目大小估算器，未声明时使用 {@link DefaultSizeEstimator}
+     */
+    public CacheRegionManager(CacheRegionProperties properties, ObjectProvider<SizeEstimator> estimatorProvider) {
+        this.properties = properties;
+        this.estimatorProvider = estimatorProvider;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        // 预先创建已配置的区域
+        properties.getRegions().keySet().forEach(this::getRegion);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+    }
+
+    /**
+     * 获取指定名称的区域，不存在时按配置创建（未单独配置时使用默认配置）。
+     *
+     * @param name 区域名称
+     * @return 缓存区域
+     * @throws IllegalArgumentException 如果区域名称为空
+     */
+    public CacheRegion getRegion(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Region name cannot be null or empty");
+        }
+        return regions.computeIfAbsent(name, n -> {
+            CacheRegionProperties.RegionSpec spec = properties.getSpec(n);
+            SizeEstimator estimator = spec.getMaximumBytes() > 0
+                    ? estimatorProvider.getIfAvailable(DefaultSizeEstimator::new)
+                    : null;
+            return new CacheRegion(n, spec, estimator);
+        });
+    }
+
+    /**
+     * 获取所有已创建的区域。
+     *
+     * @return 区域集合
+     */
+    public Collection<CacheRegion> getRegions() {
+        return Collections.unmodifiableCollection(regions.values());
+    }
+
+    /**
+     * 调整指定区域的容量上限。
+     *
+     * @param name    区域名称
+     * @param maximum 新的容量上限，按字节预算淘汰的区域为字节数，否则为条目数
+     */
+    @Override
+    public void resize(String name, long maximum) {
+        getRegion(name).setMaximum(maximum);
+    }
+
+    /**
+     * 获取所有区域的统计信息。
+     *
+     * @return 区域名称到统计信息的映射
+     */
+    public Map<String, CacheRegionStats> stats() {
+        Map<String, CacheRegionStats> stats = new LinkedHashMap<>();
+        regions.values().forEach(region -> stats.put(region.getName(), region.stats()));
+        return stats;
+    }
+
+    @Override
+    public List<CacheRegionStats> getRegionStats() {
+        return new ArrayList<>(stats().values());
+    }
+
+    /**
+     * 清空所有区域。
+     */
+    public void clearAll() {
+        regions.values().forEach(CacheRegion::clear);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.im.common.cache.local.region;
+
+import java.util.List;
+
+/**
+ * 本地缓存区域的 JMX 视图，注册为 com.im.common.cache:type=CacheRegionManager。
+ */
+public interface CacheRegionManagerMXBean {
+
+    /**
+     * 各区域的命中率、加载耗时与淘汰次数等统计。
+     *
+     * @return 各区域的统计
+     */
+    List<CacheRegionStats> getRegionStats();
+
+    /**
+     * 调整指定区域的容量上限。
+     *
+     * @param name    区域名称
+     * @param maximum 新的容量上限，按字节预算淘汰的区域为字节数，否则为条目数
+     */
+    void resize(String name, long maximum);
+}
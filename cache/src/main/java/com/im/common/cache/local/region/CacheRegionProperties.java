@@ -0,0 +1,121 @@
+package com.im.common.cache.local.region;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地缓存区域配置。
+ * 区域名称包含冒号等特殊字符时需要使用方括号，例如：
+ * <pre>
+ * cache.local.regions.[im:cache:friend].maximum-size=50000
+ * cache.local.regions.[im:cache:friend].expire-after-write=10m
+ * cache.local.regions.[im:cache:group_member_ids].maximum-bytes=67108864
+ * cache.local.regions.[im:cache:group_member_ids].expire-after-access=5m
+ * </pre>
+ * 未配置的区域使用 cache.local.region-defaults 下的配置。
+ */
+@Component
+@ConfigurationProperties(prefix = "cache.local")
+public class CacheRegionProperties {
+
+    /**
+     * 各区域的配置，key 为区域名称。
+     */
+    private Map<String, RegionSpec> regions = new LinkedHashMap<>();
+
+    /**
+     * 未单独配置的区域使用的默认配置。
+     */
+    private RegionSpec regionDefaults = new RegionSpec();
+
+    public Map<String, RegionSpec> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, RegionSpec> regions) {
+        this.regions = regions;
+    }
+
+    public RegionSpec getRegionDefaults() {
+        return regionDefaults;
+    }
+
+    public void setRegionDefaults(RegionSpec regionDefaults) {
+        this.regionDefaults = regionDefaults;
+    }
+
+    /**
+     * 获取指定区域的配置，未单独配置时返回默认配置。
+     *
+     * @param name 区域名称
+     * @return 区域配置
+     */
+    public RegionSpec getSpec(String name) {
+        RegionSpec spec = regions.get(name);
+        return spec != null ? spec : regionDefaults;
+    }
+
+    /**
+     * 单个区域的缓存策略。
+     * maximumBytes 为正数时按字节预算淘汰，否则按 maximumSize 条目数淘汰；
+     * expireAfterWrite 与 expireAfterAccess 同时配置时，写入后按 expireAfterWrite 过期，每次读取后重新计为 expireAfterAccess。
+     */
+    public static class RegionSpec {
+
+        /**
+         * 最大条目数。
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 字节预算，为正数时代替 maximumSize。
+         */
+        private long maximumBytes;
+
+        /**
+         * 写入后过期时间，为 null 时不过期。
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * 访问后过期时间，为 null 时读取不延长过期时间。
+         */
+        private Duration expireAfterAccess;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public long getMaximumBytes() {
+            return maximumBytes;
+        }
+
+        public void setMaximumBytes(long maximumBytes) {
+            this.maximumBytes = maximumBytes;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+    }
+}
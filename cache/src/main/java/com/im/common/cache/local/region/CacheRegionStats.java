@@ -0,0 +1,129 @@
+package com.im.common.cache.local.region;
+
+/**
+ * 缓存区域的统计信息快照。
+ */
+public class CacheRegionStats {
+
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final double averageLoadPenaltyMillis;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long size;
+    private final long maximum;
+
+    public CacheRegionStats(String name, long hitCount, long missCount, double hitRate,
+                            long loadSuccessCount, long loadFailureCount, double averageLoadPenaltyMillis,
+                            long evictionCount, long evictionWeight, long size, long maximum) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.averageLoadPenaltyMillis = averageLoadPenaltyMillis;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.size = size;
+        this.maximum = maximum;
+    }
+
+    /**
+     * 区域名称。
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 命中次数。
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 未命中次数。
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 命中率，没有请求时为 1.0。
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * 加载成功次数（加载结果为 null 也计为成功）。
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * 加载失败次数。
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * 平均加载耗时（毫秒）。
+     */
+    public double getAverageLoadPenaltyMillis() {
+        return averageLoadPenaltyMillis;
+    }
+
+    /**
+     * 因容量限制被淘汰的条目数（不含过期）。
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 被淘汰条目的权重之和，按字节预算淘汰时为估算字节数。
+     */
+    public long getEvictionWeight() {
+        return evictionWeight;
+    }
+
+    /**
+     * 当前条目数（估算值）。
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 当前容量上限，按字节预算淘汰时为字节数，否则为条目数。
+     */
+    public long getMaximum() {
+        return maximum;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRegionStats{" +
+                "name='" + name + '\'' +
+                ", hitRate=" + String.format("%.4f", hitRate) +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", averageLoadPenaltyMillis=" + String.format("%.3f", averageLoadPenaltyMillis) +
+                ", evictionCount=" + evictionCount +
+                ", evictionWeight=" + evictionWeight +
+                ", size=" + size +
+                ", maximum=" + maximum +
+                '}';
+    }
+}
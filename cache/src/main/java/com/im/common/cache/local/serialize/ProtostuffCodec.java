@@ -0,0 +1,78 @@
+package com.im.common.cache.local.serialize;
+
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+
+/**
+ * 基于 Protostuff 的对象编解码工具类。
+ * 用于将本地缓存的键和值序列化为紧凑的二进制格式（如堆外存储、快照文件）。
+ * 对象被包装在持有类中编码，编码结果携带实际类型信息，因此可以编解码任意类型的对象。
+ * 注意：解码时集合会按原类型重建并逐个添加元素，因此不支持 List.of、Collections.unmodifiableList 等不可变集合。
+ */
+public final class ProtostuffCodec {
+
+    private static final Schema<Holder> SCHEMA = RuntimeSchema.getSchema(Holder.class);
+
+    /**
+     * 每个线程复用的编码缓冲区。
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(512));
+
+    private ProtostuffCodec() {
+    }
+
+    /**
+     * 将对象编码为字节数组。
+     *
+     * @param value 待编码的对象
+     * @return 编码后的字节数组
+     */
+    public static byte[] serialize(Object value) {
+        LinkedBuffer buffer = BUFFER.get();
+        try {
+            return ProtostuffIOUtil.toByteArray(new Holder(value), SCHEMA, buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 将字节数组解码为对象。
+     *
+     * @param bytes 编码后的字节数组
+     * @return 解码后的对象
+     */
+    public static Object deserialize(byte[] bytes) {
+        return deserialize(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 将字节数组的指定区间解码为对象。
+     *
+     * @param bytes  编码后的字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 解码后的对象
+     */
+    public static Object deserialize(byte[] bytes, int offset, int length) {
+        Holder holder = SCHEMA.newMessage();
+        ProtostuffIOUtil.mergeFrom(bytes, offset, length, holder, SCHEMA);
+        return holder.value;
+    }
+
+    /**
+     * 对象持有类，使 Protostuff 在编码结果中写入对象的实际类型。
+     */
+    private static class Holder {
+        private Object value;
+
+        private Holder() {
+        }
+
+        private Holder(Object value) {
+            this.value = value;
+        }
+    }
+}
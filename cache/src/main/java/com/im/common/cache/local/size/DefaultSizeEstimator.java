@@ -0,0 +1,177 @@
+package com.im.common.cache.local.size;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 默认的缓存条目大小估算器。
+ * 按 64 位 JVM、压缩指针的对象布局近似计算：字符串、包装类型、数组、集合直接计算，
+ * 普通对象通过反射遍历实例字段（字段列表按类缓存）。
+ *
+ * <p>为控制估算开销：递归深度不超过 {@value #MAX_DEPTH} 层，超过的部分按固定大小计算；
+ * 集合和数组只采样前 {@value #SAMPLE_SIZE} 个元素，按平均大小外推。</p>
+ */
+public class DefaultSizeEstimator implements SizeEstimator {
+
+    /**
+     * 缓存内部为每个条目分配的节点等固定开销。
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * 无法进一步估算的对象的默认大小。
+     */
+    private static final long DEFAULT_OBJECT_SIZE = 64;
+
+    private static final long OBJECT_HEADER = 16;
+
+    private static final long REFERENCE_SIZE = 4;
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final int SAMPLE_SIZE = 16;
+
+    /**
+     * 每个类需要计算的实例字段（包括父类字段），无法访问的类为空数组。
+     */
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    @Override
+    public long estimate(Object key, Object value) {
+        return ENTRY_OVERHEAD + sizeOf(key, 0) + sizeOf(value, 0);
+    }
+
+    private long sizeOf(Object o, int depth) {
+        if (o == null) {
+            return 0;
+        }
+        if (depth > MAX_DEPTH) {
+            return DEFAULT_OBJECT_SIZE;
+        }
+        if (o instanceof String) {
+            // 按 UTF-16 存储保守估算
+            return align(OBJECT_HEADER + 8) + align(OBJECT_HEADER + 2L * ((String) o).length());
+        }
+        if (o instanceof Long || o instanceof Double) {
+            return 24;
+        }
+        if (o instanceof Number || o instanceof Boolean || o instanceof Character || o instanceof Enum) {
+            return 16;
+        }
+        if (o instanceof Collection) {
+            Collection<?> collection = (Collection<?>) o;
+            // 数组实现的列表每个元素只占一个引用，链表、哈希集合等每个元素还有一个节点
+            long perElementOverhead = o instanceof RandomAccess ? REFERENCE_SIZE : 32;
+            return 48 + sampled(collection.iterator(), collection.size(), depth, perElementOverhead);
+        }
+        if (o instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) o;
+            long sampledSize = 0;
+            int sampled = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (sampled == SAMPLE_SIZE) {
+                    break;
+                }
+                sampledSize += sizeOf(entry.getKey(), depth + 1) + sizeOf(entry.getValue(), depth + 1);
+                sampled++;
+            }
+            long perEntry = sampled == 0 ? 0 : sampledSize / sampled;
+            return 64 + (long) map.size() * (perEntry + 40);
+        }
+        Class<?> type = o.getClass();
+        if (type.isArray()) {
+            return arraySize(o, type.getComponentType(), depth);
+        }
+        if (type.getName().startsWith("java.")) {
+            return DEFAULT_OBJECT_SIZE;
+        }
+        return objectSize(o, depth);
+    }
+
+    private long arraySize(Object array, Class<?> componentType, int depth) {
+        if (componentType == byte.class) {
+            return align(OBJECT_HEADER + ((byte[]) array).length);
+        }
+        if (componentType == boolean.class) {
+            return align(OBJECT_HEADER + ((boolean[]) array).length);
+        }
+        if (componentType == char.class) {
+            return align(OBJECT_HEADER + 2L * ((char[]) array).length);
+        }
+        if (componentType == short.class) {
+            return align(OBJECT_HEADER + 2L * ((short[]) array).length);
+        }
+        if (componentType == int.class) {
+            return align(OBJECT_HEADER + 4L * ((int[]) array).length);
+        }
+        if (componentType == float.class) {
+            return align(OBJECT_HEADER + 4L * ((float[]) array).length);
+        }
+        if (componentType == long.class) {
+            return align(OBJECT_HEADER + 8L * ((long[]) array).length);
+        }
+        if (componentType == double.class) {
+            return align(OBJECT_HEADER + 8L * ((double[]) array).length);
+        }
+        Object[] elements = (Object[]) array;
+        return align(OBJECT_HEADER + REFERENCE_SIZE * elements.length)
+                + sampled(Arrays.asList(elements).iterator(), elements.length, depth, 0);
+    }
+
+    private long objectSize(Object o, int depth) {
+        Field[] fields = FIELDS.get(o.getClass());
+        long size = OBJECT_HEADER;
+        for (Field field : fields) {
+            Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                size += fieldType == long.class || fieldType == double.class ? 8 : 4;
+                continue;
+            }
+            size += REFERENCE_SIZE;
+            try {
+                size += sizeOf(field.get(o), depth + 1);
+            } catch (IllegalAccessException e) {
+                size += DEFAULT_OBJECT_SIZE;
+            }
+        }
+        return align(size);
+    }
+
+    /**
+     * 采样前若干个元素，按平均大小外推全部元素的大小。
+     */
+    private long sampled(Iterator<?> iterator, int size, int depth, long perElementOverhead) {
+        long sampledSize = 0;
+        int sampled = 0;
+        while (sampled < SAMPLE_SIZE && iterator.hasNext()) {
+            sampledSize += sizeOf(iterator.next(), depth + 1);
+            sampled++;
+        }
+        long perElement = sampled == 0 ? 0 : sampledSize / sampled;
+        return (long) size * (perElement + perElementOverhead);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
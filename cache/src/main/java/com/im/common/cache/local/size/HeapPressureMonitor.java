@@ -0,0 +1,229 @@
+package com.im.common.cache.local.size;
+
+import com.im.common.cache.local.ResizableCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆内存压力监控，自适应调整本地缓存容量。
+ *
+ * <p>为支持阈值通知的堆内存池（通常是老年代）设置使用量阈值，优先使用 GC 后使用量阈值。
+ * 收到 MemoryMXBean 的阈值通知时，将所有 {@link ResizableCache} 的容量上限乘以收缩系数，但不低于初始上限的最小比例；
+ * 之后定时检查，GC 后使用量回落到阈值以下时，每次恢复初始上限的 10%，直到恢复为初始上限。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.local.adaptive.enabled=true 时启用，相关配置：
+ * <ul>
+ *     <li>cache.local.adaptive.threshold-ratio：阈值占内存池上限的比例，默认 0.85</li>
+ *     <li>cache.local.adaptive.shrink-factor：每次收到通知时的收缩系数，默认 0.5</li>
+ *     <li>cache.local.adaptive.min-ratio：容量上限相对初始上限的最小比例，默认 0.1</li>
+ *     <li>cache.local.adaptive.recover-interval-millis：恢复检查间隔，默认 30000 毫秒</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.adaptive.enabled", havingValue = "true")
+public class HeapPressureMonitor implements NotificationListener, InitializingBean, DisposableBean {
+
+    /**
+     * 每次恢复的比例（相对初始上限）。
+     */
+    private static final double RECOVER_STEP_RATIO = 0.1;
+
+    private final ObjectProvider<ResizableCache> cacheProvider;
+
+    private final double thresholdRatio;
+
+    private final double shrinkFactor;
+
+    private final double minRatio;
+
+    private final long recoverIntervalMillis;
+
+    /**
+     * 受管理的缓存及其初始容量上限。
+     */
+    private final Map<ResizableCache, Long> initialMaximums = new IdentityHashMap<>();
+
+    /**
+     * 设置了阈值的内存池。
+     */
+    private final List<MemoryPoolMXBean> monitoredPools = new ArrayList<>();
+
+    private ScheduledExecutorService recoverScheduler;
+
+    /**
+     * 收缩缓存容量上限的次数，只在持有对象锁时修改。
+     */
+    private volatile long shrinkCount;
+
+    /**
+     * 构造函数。
+     *
+     * @param cacheProvider         可调整容量的缓存
+     * @param thresholdRatio        阈值占内存池上限的比例
+     * @param shrinkFactor          收缩系数
+     * @param minRatio              容量上限相对初始上限的最小比例
+     * @param recoverIntervalMillis 恢复检查间隔（毫秒）
+     * @throws IllegalArgumentException 如果比例或系数不在 (0, 1] 范围内
+     */
+    public HeapPressureMonitor(ObjectProvider<ResizableCache> cacheProvider,
+                               @Value("${cache.local.adaptive.threshold-ratio:0.85}") double thresholdRatio,
+                               @Value("${cache.local.adaptive.shrink-factor:0.5}") double shrinkFactor,
+                               @Value("${cache.local.adaptive.min-ratio:0.1}") double minRatio,
+                               @Value("${cache.local.adaptive.recover-interval-millis:30000}") long recoverIntervalMillis) {
+        if (!isRatio(thresholdRatio) || !isRatio(shrinkFactor) || !isRatio(minRatio)) {
+            throw new IllegalArgumentException("Threshold ratio, shrink factor and min ratio must be in (0, 1]");
+        }
+        this.cacheProvider = cacheProvider;
+        this.thresholdRatio = thresholdRatio;
+        this.shrinkFactor = shrinkFactor;
+        this.minRatio = minRatio;
+        this.recoverIntervalMillis = recoverIntervalMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        cacheProvider.orderedStream().forEach(cache -> initialMaximums.put(cache, cache.getMaximum()));
+        if (initialMaximums.isEmpty()) {
+            // 默认的 Guava 本地缓存不支持调整容量，启用自适应容量时需要声明 ResizableCache 实现
+            System.err.println("No ResizableCache bean found, adaptive local cache sizing is disabled");
+            return;
+        }
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() != MemoryType.HEAP || max <= 0) {
+                continue;
+            }
+            long threshold = (long) (max * thresholdRatio);
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(threshold);
+                monitoredPools.add(pool);
+            } else if (pool.isUsageThresholdSupported()) {
+                pool.setUsageThreshold(threshold);
+                monitoredPools.add(pool);
+            }
+        }
+        if (monitoredPools.isEmpty()) {
+            System.err.println("No heap memory pool supports usage threshold, adaptive local cache sizing is disabled");
+            return;
+        }
+
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this, null, null);
+        recoverScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-heap-pressure-recover");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recoverScheduler.scheduleWithFixedDelay(this::recover, recoverIntervalMillis, recoverIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            shrink();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (recoverScheduler == null) {
+            return;
+        }
+        recoverScheduler.shutdownNow();
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+            // 监听器未注册，忽略
+        }
+    }
+
+    /**
+     * 按收缩系数收缩所有缓存的容量上限。
+     */
+    synchronized void shrink() {
+        boolean shrunk = false;
+        for (Map.Entry<ResizableCache, Long> entry : initialMaximums.entrySet()) {
+            ResizableCache cache = entry.getKey();
+            long floor = Math.max(1L, (long) (entry.getValue() * minRatio));
+            long current = cache.getMaximum();
+            long target = Math.max(floor, (long) (current * shrinkFactor));
+            if (target < current) {
+                cache.setMaximum(target);
+                shrunk = true;
+            }
+        }
+        if (shrunk) {
+            shrinkCount++;
+        }
+    }
+
+    /**
+     * 获取因堆内存压力收缩缓存容量上限的次数。
+     *
+     * @return 收缩次数
+     */
+    public long getShrinkCount() {
+        return shrinkCount;
+    }
+
+    /**
+     * GC 后使用量回落到阈值以下时，逐步恢复所有缓存的容量上限。
+     */
+    synchronized void recover() {
+        try {
+            if (isUnderPressure()) {
+                return;
+            }
+            for (Map.Entry<ResizableCache, Long> entry : initialMaximums.entrySet()) {
+                ResizableCache cache = entry.getKey();
+                long initial = entry.getValue();
+                long current = cache.getMaximum();
+                if (current < initial) {
+                    long step = Math.max(1L, (long) (initial * RECOVER_STEP_RATIO));
+                    cache.setMaximum(Math.min(initial, current + step));
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to recover local cache maximum, error: " + e.getMessage());
+        }
+    }
+
+    private boolean isUnderPressure() {
+        for (MemoryPoolMXBean pool : monitoredPools) {
+            MemoryUsage usage = pool.isCollectionUsageThresholdSupported() ? pool.getCollectionUsage() : pool.getUsage();
+            if (usage != null && usage.getMax() > 0 && usage.getUsed() >= usage.getMax() * thresholdRatio) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRatio(double value) {
+        return value > 0 && value <= 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.im.common.cache.local.size;
+
+/**
+ * 缓存条目大小估算器。
+ * 用于按字节预算淘汰本地缓存条目，估算值只需与实际占用大致成比例，调用应足够廉价（写入时调用一次）。
+ * 可将实现声明为 Spring Bean 以替换默认的 {@link DefaultSizeEstimator}。
+ */
+public interface SizeEstimator {
+
+    /**
+     * 估算一个缓存条目占用的堆内存。
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @return 估算的字节数
+     */
+    long estimate(Object key, Object value);
+}
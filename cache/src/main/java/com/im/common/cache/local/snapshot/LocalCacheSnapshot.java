@@ -0,0 +1,287 @@
+package com.im.common.cache.local.snapshot;
+
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.serialize.ProtostuffCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地缓存快照文件的读写工具类。
+ *
+ * <p>快照通过内存映射写入和读取，键和值使用 {@link ProtostuffCodec} 编码，文件格式如下（整数均为大端序）：</p>
+ * <pre>
+ * 文件头：magic(int) version(int) createdAtMillis(long)
+ * 条目：  keyLength(int) valueLength(int) expireAtMillis(long，0 表示永不过期) key value
+ * 文件尾：条目偏移表(long × count) count(int) offsetTablePosition(long) magic(int)
+ * </pre>
+ *
+ * <p>过期时间记录为墙上时钟的绝对时间，恢复时跳过已过期的条目，其余条目以剩余时间作为 TTL 写入。
+ * 文件尾的偏移表使恢复可以把条目切分给多个线程并行解码。快照先写入临时文件，完成后再原子替换目标文件。</p>
+ */
+public final class LocalCacheSnapshot {
+
+    private static final int MAGIC = 0x494D4C43;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    /**
+     * 文件尾除偏移表外的长度：count(int) + offsetTablePosition(long) + magic(int)。
+     */
+    private static final int TRAILER_SIZE = 16;
+
+    /**
+     * 写入时每次映射的文件区域大小。
+     */
+    private static final int MAP_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private LocalCacheSnapshot() {
+    }
+
+    /**
+     * 将缓存条目写入快照文件。
+     * 无法编码的条目会被跳过；快照文件大小达到 maxBytes 后不再写入更多条目。
+     *
+     * @param cache    支持快照的缓存
+     * @param path     快照文件路径
+     * @param maxBytes 快照文件大小上限，不超过 {@link Integer#MAX_VALUE}
+     * @return 写入的条目数
+     * @throws IOException 如果写入文件失败
+     */
+    public static int write(SnapshotableCache cache, Path path, long maxBytes) throws IOException {
+        long limit = Math.min(maxBytes, Integer.MAX_VALUE);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        long now = System.currentTimeMillis();
+        AtomicInteger skipped = new AtomicInteger();
+        int count;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedWriter writer = new MappedWriter(channel);
+            writer.ensure(HEADER_SIZE);
+            writer.buffer.putInt(MAGIC).putInt(VERSION).putLong(now);
+
+            List<Long> offsets = new ArrayList<>();
+            try {
+                cache.forEachEntry((key, value, remainingTtl) -> {
+                    byte[] keyBytes;
+                    byte[] valueBytes;
+                    try {
+                        keyBytes = ProtostuffCodec.serialize(key);
+                        valueBytes = ProtostuffCodec.serialize(value);
+                    } catch (RuntimeException e) {
+                        skipped.incrementAndGet();
+                        return;
+                    }
+                    long recordSize = RECORD_HEADER_SIZE + (long) keyBytes.length + valueBytes.length;
+                    // 为偏移表和文件尾预留空间
+                    long reserved = (offsets.size() + 1L) * Long.BYTES + TRAILER_SIZE;
+                    if (writer.position() + recordSize + reserved > limit) {
+                        skipped.incrementAndGet();
+                        return;
+                    }
+                    long expireAt = remainingTtl == null ? 0L : now + Math.max(1L, remainingTtl.toMillis());
+                    try {
+                        writer.ensure(recordSize);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    offsets.add(writer.position());
+                    writer.buffer.putInt(keyBytes.length).putInt(valueBytes.length).putLong(expireAt)
+                            .put(keyBytes).put(valueBytes);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            count = offsets.size();
+            long offsetTablePosition = writer.position();
+            writer.ensure((long) count * Long.BYTES + TRAILER_SIZE);
+            for (long offset : offsets) {
+                writer.buffer.putLong(offset);
+            }
+            writer.buffer.putInt(count).putLong(offsetTablePosition).putInt(MAGIC);
+            long size = writer.position();
+            writer.buffer.force();
+            channel.truncate(size);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (skipped.get() > 0) {
+            System.err.println("Skipped " + skipped.get() + " entries when writing local cache snapshot: " + path);
+        }
+        return count;
+    }
+
+    /**
+     * 从快照文件恢复缓存条目，跳过已过期和无法解码的条目。
+     *
+     * @param cache   目标缓存
+     * @param path    快照文件路径
+     * @param threads 并行解码的线程数
+     * @param maxAge  快照的最大有效期，快照早于该时间生成时不恢复；为 null 时不限制
+     * @return 恢复的条目数，快照文件不存在或已失效时返回 0
+     * @throws IOException 如果读取文件失败或文件格式不正确
+     */
+    public static int restore(LocalCache cache, Path path, int threads, Duration maxAge) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid local cache snapshot size: " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        int limit = buffer.limit();
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(limit - Integer.BYTES) != MAGIC) {
+            throw new IOException("Invalid local cache snapshot: " + path);
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported local cache snapshot version: " + buffer.getInt(Integer.BYTES));
+        }
+        long createdAt = buffer.getLong(Integer.BYTES * 2);
+        if (maxAge != null && System.currentTimeMillis() - createdAt > maxAge.toMillis()) {
+            return 0;
+        }
+        int count = buffer.getInt(limit - TRAILER_SIZE);
+        int offsetTablePosition = (int) buffer.getLong(limit - TRAILER_SIZE + Integer.BYTES);
+        if (count < 0 || offsetTablePosition + (long) count * Long.BYTES + TRAILER_SIZE != limit) {
+            throw new IOException("Corrupted local cache snapshot: " + path);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        int parallelism = Math.max(1, Math.min(threads, count));
+        int chunk = (count + parallelism - 1) / parallelism;
+        AtomicInteger restored = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "cache-snapshot-restore");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(parallelism);
+            for (int from = 0; from < count; from += chunk) {
+                int start = from;
+                int end = Math.min(count, from + chunk);
+                futures.add(executor.submit(() ->
+                        restored.addAndGet(restoreRange(cache, buffer, offsetTablePosition, start, end))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to restore local cache snapshot: " + path, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return restored.get();
+    }
+
+    /**
+     * 解码并写入偏移表中 [start, end) 范围内的条目，只使用绝对位置读取，多个线程可共享同一个映射缓冲区。
+     */
+    private static int restoreRange(LocalCache cache, ByteBuffer buffer, int offsetTablePosition, int start, int end) {
+        int restored = 0;
+        for (int i = start; i < end; i++) {
+            int offset = (int) buffer.getLong(offsetTablePosition + i * Long.BYTES);
+            int keyLength = buffer.getInt(offset);
+            int valueLength = buffer.getInt(offset + Integer.BYTES);
+            long expireAt = buffer.getLong(offset + Integer.BYTES * 2);
+
+            long remainingMillis = 0L;
+            if (expireAt != 0L) {
+                remainingMillis = expireAt - System.currentTimeMillis();
+                if (remainingMillis <= 0) {
+                    continue;
+                }
+            }
+
+            byte[] keyBytes = new byte[keyLength];
+            byte[] valueBytes = new byte[valueLength];
+            buffer.get(offset + RECORD_HEADER_SIZE, keyBytes);
+            buffer.get(offset + RECORD_HEADER_SIZE + keyLength, valueBytes);
+            Object key;
+            Object value;
+            try {
+                key = ProtostuffCodec.deserialize(keyBytes);
+                value = ProtostuffCodec.deserialize(valueBytes);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (key == null || value == null) {
+                continue;
+            }
+            if (expireAt == 0L) {
+                cache.put(key, value);
+            } else {
+                cache.put(key, value, Duration.ofMillis(remainingMillis));
+            }
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * 按块映射文件的顺序写入器，当前映射区域剩余空间不足时从当前位置重新映射。
+     */
+    private static final class MappedWriter {
+
+        private final FileChannel channel;
+
+        private MappedByteBuffer buffer;
+
+        /**
+         * 当前映射区域在文件中的起始位置。
+         */
+        private long base;
+
+        private MappedWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private long position() {
+            return buffer == null ? base : base + buffer.position();
+        }
+
+        private void ensure(long bytes) throws IOException {
+            if (buffer != null && buffer.remaining() >= bytes) {
+                return;
+            }
+            long position = position();
+            if (buffer != null) {
+                buffer.force();
+            }
+            base = position;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(MAP_CHUNK_SIZE, bytes));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.im.common.cache.local.snapshot;
+
+import com.im.common.cache.local.LocalCache;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * 本地缓存快照管理器。
+ * 启动时从快照文件并行恢复本地缓存，容器关闭时把本地缓存写入快照文件，
+ * 使滚动发布后的节点以预热的本地缓存启动，避免 Redis 与数据库承受集中的未命中请求。
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：配置了 cache.local.snapshot.path 时启用，相关配置：
+ * <ul>
+ *     <li>cache.local.snapshot.path：快照文件路径</li>
+ *     <li>cache.local.snapshot.restore-threads：恢复线程数，默认为 CPU 核数</li>
+ *     <li>cache.local.snapshot.max-bytes：快照文件大小上限，默认 1GB</li>
+ *     <li>cache.local.snapshot.max-age-millis：快照的最大有效期，默认 10 分钟，过旧的快照不恢复</li>
+ * </ul>
+ * 只有实现了 {@link SnapshotableCache} 的本地缓存会在关闭时写入快照；恢复适用于任意本地缓存。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.local.snapshot.path")
+public class LocalCacheSnapshotManager implements InitializingBean, DisposableBean {
+
+    private final ObjectProvider<LocalCache> localCacheProvider;
+
+    private final Path path;
+
+    private final int restoreThreads;
+
+    private final long maxBytes;
+
+    private final long maxAgeMillis;
+
+    /**
+     * 启动时从快照恢复的条目数。
+     */
+    private volatile int restoredEntries;
+
+    /**
+     * 启动时恢复快照的耗时（毫秒）。
+     */
+    private volatile long restoreMillis;
+
+    /**
+     * 构造函数。
+     *
+     * @param localCacheProvider 本地缓存
+     * @param path               快照文件路径
+     * @param restoreThreads     恢复线程数，不大于 0 时使用 CPU 核数
+     * @param maxBytes           快照文件大小上限
+     * @param maxAgeMillis       快照的最大有效期（毫秒）
+     */
+    public LocalCacheSnapshotManager(ObjectProvider<LocalCache> localCacheProvider,
+                                     @Value("${cache.local.snapshot.path}") String path,
+                                     @Value("${cache.local.snapshot.restore-threads:0}") int restoreThreads,
+                                     @Value("${cache.local.snapshot.max-bytes:1073741824}") long maxBytes,
+                                     @Value("${cache.local.snapshot.max-age-millis:600000}") long maxAgeMillis) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Snapshot path cannot be null or empty");
+        }
+        this.localCacheProvider = localCacheProvider;
+        this.path = Paths.get(path);
+        this.restoreThreads = restoreThreads > 0 ? restoreThreads : Runtime.getRuntime().availableProcessors();
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        LocalCache localCache = localCacheProvider.getIfUnique();
+        if (localCache == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            restoredEntries = LocalCacheSnapshot.restore(localCache, path, restoreThreads, Duration.ofMillis(maxAgeMillis));
+            restoreMillis = System.currentTimeMillis() - start;
+        } catch (Exception e) {
+            // 快照只用于预热，恢复失败时以空缓存启动
+            System.err.println("Failed to restore local cache snapshot: " + path + ", error: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        LocalCache localCache = localCacheProvider.getIfUnique();
+        if (!(localCache instanceof SnapshotableCache)) {
+            return;
+        }
+        try {
+            LocalCacheSnapshot.write((SnapshotableCache) localCache, path, maxBytes);
+        } catch (Exception e) {
+            System.err.println("Failed to write local cache snapshot: " + path + ", error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取启动时从快照恢复的条目数。
+     *
+     * @return 恢复的条目数，没有可用快照或恢复失败时为 0
+     */
+    public int getRestoredEntries() {
+        return restoredEntries;
+    }
+
+    /**
+     * 获取启动时恢复快照的耗时。
+     *
+     * @return 恢复耗时（毫秒）
+     */
+    public long getRestoreMillis() {
+        return restoreMillis;
+    }
+}
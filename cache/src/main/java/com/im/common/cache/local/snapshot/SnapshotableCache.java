@@ -0,0 +1,33 @@
+package com.im.common.cache.local.snapshot;
+
+import java.time.Duration;
+
+/**
+ * 支持遍历条目及其剩余过期时间的本地缓存，用于生成快照。
+ */
+public interface SnapshotableCache {
+
+    /**
+     * 遍历缓存中所有未过期的条目。
+     * 遍历期间缓存可以被并发修改，遍历结果不保证是某一时刻的一致视图。
+     *
+     * @param visitor 条目访问者
+     */
+    void forEachEntry(EntryVisitor visitor);
+
+    /**
+     * 缓存条目访问者。
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        /**
+         * 访问一个缓存条目。
+         *
+         * @param key          缓存键
+         * @param value        缓存值
+         * @param remainingTtl 剩余过期时间，永不过期时为 null
+         */
+        void visit(Object key, Object value, Duration remainingTtl);
+    }
+}
@@ -1,10 +1,16 @@
 package com.im.common.cache.lock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 分布式锁接口。
  * 定义分布式锁的常规操作方法，包含加锁、释放锁、判断是否已加锁等操作。
  * 适用于多进程、多服务器环境下的资源竞争控制。
+ *
+ * <p>同步方法以当前线程作为锁的持有者；异步方法（{@link #tryLockAsync}、{@link #unlockAsync}）以调用方传入的
+ * 持有者令牌作为持有者，等待期间不占用线程，适用于响应式代码与大量并发的逻辑任务。
+ * 同一个令牌的加锁与解锁可以在不同线程上执行，令牌与线程持有的锁互不相同。</p>
  */
 public interface DistributedLock {
 
@@ -63,6 +69,50 @@ public interface DistributedLock {
      */
     boolean unlock();
 
+    /**
+     * 异步尝试加锁，以持有者令牌而不是当前线程作为持有者。
+     * 等待期间不占用线程，返回的 Future 在获得锁或等待超时后完成。
+     * 同一个令牌可以重入，解锁次数需与加锁次数相同。
+     *
+     * @param waitTime   等待时间
+     * @param leaseTime  锁的过期时间（自动释放），不大于 0 时持有期间自动续期
+     * @param unit       时间单位
+     * @param ownerToken 持有者令牌，见 {@link #newOwnerToken()}
+     * @return 加锁成功时完成为 true，超时完成为 false
+     */
+    CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken);
+
+    /**
+     * 异步尝试加锁，持有期间自动续期。
+     *
+     * @param waitTime   等待时间
+     * @param unit       时间单位
+     * @param ownerToken 持有者令牌，见 {@link #newOwnerToken()}
+     * @return 加锁成功时完成为 true，超时完成为 false
+     * @see #tryLockAsync(long, long, TimeUnit, long)
+     */
+    default CompletableFuture<Boolean> tryLockAsync(long waitTime, TimeUnit unit, long ownerToken) {
+        return tryLockAsync(waitTime, -1L, unit, ownerToken);
+    }
+
+    /**
+     * 异步释放持有者令牌持有的锁。
+     *
+     * @param ownerToken 加锁时使用的持有者令牌
+     * @return 释放成功时完成为 true，令牌未持有该锁时完成为 false
+     */
+    CompletableFuture<Boolean> unlockAsync(long ownerToken);
+
+    /**
+     * 生成新的持有者令牌。
+     * 令牌为随机负数，不会与线程 ID 冲突；每个需要持有锁的逻辑任务使用各自的令牌。
+     *
+     * @return 持有者令牌
+     */
+    static long newOwnerToken() {
+        return ThreadLocalRandom.current().nextLong(Long.MIN_VALUE, 0L);
+    }
+
     /**
      * 判断是否已加锁。
      * 检查当前锁是否被某个线程持有。
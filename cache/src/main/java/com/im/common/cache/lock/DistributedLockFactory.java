@@ -1,4 +1,7 @@
 package com.im.common.cache.lock;
+
+import java.util.Collection;
+
 /**
  * 分布式锁工厂接口。
  * 定义获取分布式锁实例的方法，通过调用该方法可以获取一个分布式锁实例。
@@ -28,6 +31,72 @@ public interface DistributedLockFactory {
      */
     DistributedLock getLock(String prefix, String lockName);
 
+    /**
+     * 获取分布式读写锁实例。
+     * 读锁可以被同时持有，写锁独占，适用于读多写少的数据。
+     *
+     * @param lockName 锁的名称，用于唯一标识一个锁
+     * @return DistributedReadWriteLock 实例
+     * @throws IllegalArgumentException 如果 lockName 为 null 或空字符串
+     */
+    DistributedReadWriteLock getReadWriteLock(String lockName);
+
+    /**
+     * 获取分布式读写锁实例（带前缀）。
+     * 实际的锁名称为：prefix + lockName
+     *
+     * @param prefix   锁名称前缀
+     * @param lockName 锁的名称
+     * @return DistributedReadWriteLock 实例
+     * @throws IllegalArgumentException 如果 prefix 或 lockName 为 null 或空字符串
+     */
+    DistributedReadWriteLock getReadWriteLock(String prefix, String lockName);
+
+    /**
+     * 获取公平锁实例。
+     * 等待者按请求顺序获得锁，避免在竞争激烈时某些等待者长时间拿不到锁。
+     *
+     * @param lockName 锁的名称，用于唯一标识一个锁
+     * @return DistributedLock 实例
+     * @throws IllegalArgumentException 如果 lockName 为 null 或空字符串
+     */
+    DistributedLock getFairLock(String lockName);
+
+    /**
+     * 获取公平锁实例（带前缀）。
+     * 实际的锁名称为：prefix + lockName
+     *
+     * @param prefix   锁名称前缀
+     * @param lockName 锁的名称
+     * @return DistributedLock 实例
+     * @throws IllegalArgumentException 如果 prefix 或 lockName 为 null 或空字符串
+     */
+    DistributedLock getFairLock(String prefix, String lockName);
+
+    /**
+     * 获取同时锁定多个名称的联锁实例。
+     * 只有全部锁都获取成功才算加锁成功，任意一个失败时已获取的锁会被释放。
+     * 锁名称会去重并按字典序排序后依次获取，所有调用方使用相同的顺序，避免相互等待造成死锁。
+     * 适用于转账、合并等需要同时锁定多个群组或用户的操作。
+     *
+     * @param lockNames 锁的名称集合
+     * @return DistributedLock 实例
+     * @throws IllegalArgumentException 如果 lockNames 为空，或其中包含 null 或空字符串
+     */
+    DistributedLock getMultiLock(Collection<String> lockNames);
+
+    /**
+     * 获取同时锁定多个名称的联锁实例（带前缀）。
+     * 每个实际的锁名称为：prefix + lockName
+     *
+     * @param prefix    锁名称前缀
+     * @param lockNames 锁的名称集合
+     * @return DistributedLock 实例
+     * @throws IllegalArgumentException 如果 prefix 为 null 或空字符串，或 lockNames 为空、其中包含 null 或空字符串
+     * @see #getMultiLock(Collection)
+     */
+    DistributedLock getMultiLock(String prefix, Collection<String> lockNames);
+
     /**
      * 获取工厂的名称。
      * 用于标识该工厂的实现类型（如 "redisson"、"redis" 等）。
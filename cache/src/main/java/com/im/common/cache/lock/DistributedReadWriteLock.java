@@ -0,0 +1,31 @@
+package com.im.common.cache.lock;
+
+/**
+ * 分布式读写锁接口。
+ * 读锁之间互不阻塞，可以被多个节点、多个线程同时持有；写锁与任何读锁、写锁互斥。
+ * 适用于读多写少的场景（如群组元数据），使只读的临界区可以在集群内并行执行。
+ * 读锁与写锁都遵循 {@link DistributedLock} 的约定。
+ */
+public interface DistributedReadWriteLock {
+
+    /**
+     * 获取读锁。
+     *
+     * @return 读锁
+     */
+    DistributedLock readLock();
+
+    /**
+     * 获取写锁。
+     *
+     * @return 写锁
+     */
+    DistributedLock writeLock();
+
+    /**
+     * 获取锁的名称。
+     *
+     * @return 锁的名称
+     */
+    String getLockName();
+}
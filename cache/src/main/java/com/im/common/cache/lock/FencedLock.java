@@ -0,0 +1,26 @@
+package com.im.common.cache.lock;
+
+/**
+ * 带防护令牌（fencing token）的分布式锁。
+ * 每次获取锁成功都会得到一个单调递增的令牌。持有者把令牌随写请求一起发给下游存储，
+ * 下游拒绝令牌小于已见过最大值的写入。这样，因停顿（如 GC）导致锁已过期的旧持有者
+ * 即使继续写入，也不会覆盖新持有者的数据。
+ */
+public interface FencedLock extends DistributedLock {
+
+    /**
+     * 获取当前线程持有该锁时得到的防护令牌。
+     * 重入获取不会产生新的令牌。
+     *
+     * @return 防护令牌，当前线程未持有该锁或该锁不提供令牌（如读锁）时返回 -1
+     */
+    long getFencingToken();
+
+    /**
+     * 获取持有者令牌通过 {@link #tryLockAsync} 持有该锁时得到的防护令牌。
+     *
+     * @param ownerToken 加锁时使用的持有者令牌
+     * @return 防护令牌，该持有者未持有该锁或该锁不提供令牌（如读锁）时返回 -1
+     */
+    long getFencingToken(long ownerToken);
+}
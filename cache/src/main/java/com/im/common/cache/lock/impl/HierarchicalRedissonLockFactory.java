@@ -0,0 +1,450 @@
+package com.im.common.cache.lock.impl;
+
+import com.im.common.cache.lock.DistributedLock;
+import com.im.common.cache.lock.DistributedLockFactory;
+import com.im.common.cache.lock.DistributedReadWriteLock;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分层的 Redisson 分布式锁工厂实现类。
+ *
+ * <p>同一节点上竞争同一把锁的线程先在本地锁上排队，只有本地锁的持有者才会去获取或持有 Redis 锁，
+ * 避免每个线程各自订阅解锁消息、反复访问 Redis。Redis 锁以节点级的虚拟线程 ID 持有，
+ * 释放时若本地还有等待者，会把 Redis 锁直接交给下一个本地等待者，省去一次释放与重新获取的往返；
+ * 连续交接次数达到上限后强制释放一次，让其他节点有机会获得锁。</p>
+ *
+ * <p>异步加锁（{@link DistributedLock#tryLockAsync}）以持有者令牌直接获取 Redis 锁，不参与本地排队。</p>
+ *
+ * <p>指定了过期时间（leaseTime）的锁不会交接：交接会让下一个持有者继承剩余的过期时间，因此总是释放 Redis 锁。
+ * 本地锁按锁名称创建并引用计数，没有持有者与等待者时移除。</p>
+ *
+ * 使用 @ConditionalOnExpression 注解，根据配置决定是否加载该类，加载时作为首选的 {@link DistributedLockFactory}。
+ * 配置项：cache.distributed.redisson.enabled=true 且 cache.distributed.lock.mode=hierarchical 时启用此实现，
+ * 连续交接次数上限由 cache.distributed.lock.max-local-handoffs 配置（默认 16）。
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${cache.distributed.redisson.enabled:false} && '${cache.distributed.lock.mode:}' == 'hierarchical'")
+public class HierarchicalRedissonLockFactory implements DistributedLockFactory {
+
+    /**
+     * 默认的锁名称前缀。
+     */
+    private static final String DEFAULT_LOCK_PREFIX = "lock:";
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 连续交给本地等待者的最大次数。
+     */
+    private final int maxLocalHandoffs;
+
+    /**
+     * 本节点持有 Redis 锁时使用的虚拟线程 ID，取负数避免与真实线程 ID 冲突。
+     * 本地锁保证同一时刻只有一个本地线程使用该 ID 操作同一把 Redis 锁。
+     */
+    private final long ownerId = -1L - ThreadLocalRandom.current().nextLong(Long.MAX_VALUE - 1);
+
+    /**
+     * 按完整锁名称管理的本地锁。
+     */
+    private final ConcurrentHashMap<String, LocalEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数。
+     *
+     * @param redissonClient   Redisson 客户端
+     * @param maxLocalHandoffs 连续交给本地等待者的最大次数
+     */
+    public HierarchicalRedissonLockFactory(RedissonClient redissonClient,
+                                           @Value("${cache.distributed.lock.max-local-handoffs:16}") int maxLocalHandoffs) {
+        this.redissonClient = redissonClient;
+        this.maxLocalHandoffs = Math.max(0, maxLocalHandoffs);
+    }
+
+    @Override
+    public DistributedLock getLock(String lockName) {
+        return getLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    @Override
+    public DistributedLock getLock(String prefix, String lockName) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new IllegalArgumentException("Prefix cannot be null or empty");
+        }
+        if (!StringUtils.hasText(lockName)) {
+            throw new IllegalArgumentException("Lock name cannot be null or empty");
+        }
+
+        // 组合完整的锁名称
+        String fullLockName = prefix + lockName;
+        return new HierarchicalLock(fullLockName, redissonClient.getLock(fullLockName));
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String lockName) {
+        return getReadWriteLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    /**
+     * 读写锁直接使用 Redisson 的 RReadWriteLock，不经过本地排队：读锁本身可以并发持有，无需合并。
+     */
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        return new RedissonDistributedReadWriteLock(fullLockName, redissonClient.getReadWriteLock(fullLockName));
+    }
+
+    @Override
+    public DistributedLock getFairLock(String lockName) {
+        return getFairLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    /**
+     * 公平锁直接使用 Redisson 的 RFairLock，不经过本地排队：本地交接会让同节点的等待者插队，破坏公平性。
+     */
+    @Override
+    public DistributedLock getFairLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        return new RedissonDistributedLock(fullLockName, redissonClient.getFairLock(fullLockName));
+    }
+
+    @Override
+    public DistributedLock getMultiLock(Collection<String> lockNames) {
+        return getMultiLock(DEFAULT_LOCK_PREFIX, lockNames);
+    }
+
+    /**
+     * 按排序后的锁名称依次获取各自的分层锁，使每把锁仍可以在本地等待者之间交接。
+     */
+    @Override
+    public DistributedLock getMultiLock(String prefix, Collection<String> lockNames) {
+        List<String> fullLockNames = LockNames.sorted(prefix, lockNames);
+        List<DistributedLock> locks = new ArrayList<>(fullLockNames.size());
+        for (String fullLockName : fullLockNames) {
+            locks.add(new HierarchicalLock(fullLockName, redissonClient.getLock(fullLockName)));
+        }
+        return locks.size() == 1 ? locks.get(0) : new OrderedMultiLock(locks);
+    }
+
+    @Override
+    public String getFactoryName() {
+        return "redisson-hierarchical";
+    }
+
+    private LocalEntry retain(String lockName) {
+        return entries.compute(lockName, (name, entry) -> {
+            LocalEntry retained = entry != null ? entry : new LocalEntry();
+            retained.references++;
+            return retained;
+        });
+    }
+
+    private void release(String lockName) {
+        entries.computeIfPresent(lockName, (name, entry) -> {
+            entry.references--;
+            return entry.references == 0 && !entry.remoteHeld ? null : entry;
+        });
+    }
+
+    /**
+     * 本地锁及其持有 Redis 锁的状态。
+     */
+    private static final class LocalEntry {
+
+        private final ReentrantLock localLock = new ReentrantLock();
+
+        /**
+         * 本节点是否以虚拟线程 ID 持有 Redis 锁，只在持有本地锁时修改。
+         */
+        private volatile boolean remoteHeld;
+
+        /**
+         * Redis 锁是否带有过期时间，带过期时间的锁不交接。
+         */
+        private boolean leased;
+
+        /**
+         * 未释放 Redis 锁的连续交接次数。
+         */
+        private int handoffs;
+
+        /**
+         * 持有者与等待者数量，只在 ConcurrentHashMap.compute 中修改。
+         */
+        private int references;
+    }
+
+    /**
+     * 分层锁：先获取本地锁，本地锁的持有者再获取（或继承）Redis 锁。
+     */
+    private final class HierarchicalLock implements DistributedLock {
+
+        private final String lockName;
+
+        private final RLock rLock;
+
+        private HierarchicalLock(String lockName, RLock rLock) {
+            this.lockName = lockName;
+            this.rLock = rLock;
+        }
+
+        @Override
+        public boolean tryLock() {
+            LocalEntry entry = retain(lockName);
+            if (!entry.localLock.tryLock()) {
+                release(lockName);
+                return false;
+            }
+            if (entry.remoteHeld) {
+                return true;
+            }
+            boolean locked;
+            try {
+                locked = acquired(entry, awaitUninterruptibly(rLock.tryLockAsync(ownerId)), false);
+            } catch (RuntimeException e) {
+                unlockLocal(entry);
+                throw e;
+            }
+            if (locked) {
+                return true;
+            }
+            unlockLocal(entry);
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+            return tryLock(waitTime, -1L, unit);
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(waitTime);
+            LocalEntry entry = retain(lockName);
+            boolean locked;
+            try {
+                locked = entry.localLock.tryLock(waitTime, unit);
+            } catch (InterruptedException e) {
+                giveUp(entry);
+                throw e;
+            }
+            if (!locked) {
+                giveUp(entry);
+                return false;
+            }
+            if (entry.remoteHeld) {
+                return true;
+            }
+
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            RFuture<Boolean> future;
+            try {
+                future = rLock.tryLockAsync(remaining, leaseTime > 0 ? unit.toNanos(leaseTime) : -1L,
+                        TimeUnit.NANOSECONDS, ownerId);
+            } catch (RuntimeException e) {
+                unlockLocal(entry);
+                throw e;
+            }
+            try {
+                if (acquired(entry, await(future), leaseTime > 0)) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                unlockLocal(entry);
+                throw e;
+            } catch (InterruptedException e) {
+                // 获取请求已发出，等待其完成后释放，避免留下无人持有的 Redis 锁
+                if (Boolean.TRUE.equals(awaitUninterruptibly(future))) {
+                    awaitUninterruptibly(rLock.unlockAsync(ownerId));
+                }
+                unlockLocal(entry);
+                throw e;
+            }
+            unlockLocal(entry);
+            return false;
+        }
+
+        @Override
+        public void lock() {
+            lockInternal(-1L, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void lock(long leaseTime, TimeUnit unit) {
+            lockInternal(leaseTime, unit);
+        }
+
+        private void lockInternal(long leaseTime, TimeUnit unit) {
+            LocalEntry entry = retain(lockName);
+            entry.localLock.lock();
+            if (entry.remoteHeld) {
+                return;
+            }
+            try {
+                awaitUninterruptibly(rLock.lockAsync(leaseTime > 0 ? leaseTime : -1L, unit, ownerId));
+            } catch (RuntimeException e) {
+                unlockLocal(entry);
+                throw e;
+            }
+            acquired(entry, true, leaseTime > 0);
+        }
+
+        @Override
+        public boolean unlock() {
+            LocalEntry entry = entries.get(lockName);
+            if (entry == null || !entry.localLock.isHeldByCurrentThread()) {
+                return false;
+            }
+            if (entry.localLock.getHoldCount() > 1) {
+                // 本地重入，Redis 锁只在最外层释放
+                unlockLocal(entry);
+                return true;
+            }
+
+            if (!entry.leased && entry.handoffs < maxLocalHandoffs && entry.localLock.hasQueuedThreads()) {
+                // 直接把 Redis 锁交给下一个本地等待者
+                entry.handoffs++;
+                entry.localLock.unlock();
+                settleHandoff(entry);
+                release(lockName);
+                return true;
+            }
+            boolean released = releaseRemote(entry);
+            unlockLocal(entry);
+            return released;
+        }
+
+        /**
+         * 异步加锁以持有者令牌直接获取 Redis 锁，不经过本地排队与交接：本地锁与线程绑定。
+         */
+        @Override
+        public CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken) {
+            return new RedissonDistributedLock(lockName, rLock).tryLockAsync(waitTime, leaseTime, unit, ownerToken);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> unlockAsync(long ownerToken) {
+            return new RedissonDistributedLock(lockName, rLock).unlockAsync(ownerToken);
+        }
+
+        @Override
+        public boolean isLocked() {
+            return rLock.isLocked();
+        }
+
+        @Override
+        public boolean isHeldByCurrentThread() {
+            LocalEntry entry = entries.get(lockName);
+            return entry != null && entry.localLock.isHeldByCurrentThread() && entry.remoteHeld;
+        }
+
+        @Override
+        public String getLockName() {
+            return lockName;
+        }
+
+        private boolean acquired(LocalEntry entry, Boolean acquired, boolean leased) {
+            if (Boolean.TRUE.equals(acquired)) {
+                entry.remoteHeld = true;
+                entry.leased = leased;
+                entry.handoffs = 0;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean releaseRemote(LocalEntry entry) {
+            entry.remoteHeld = false;
+            try {
+                awaitUninterruptibly(rLock.unlockAsync(ownerId));
+                return true;
+            } catch (IllegalMonitorStateException e) {
+                // Redis 锁已过期或不再由本节点持有
+                return false;
+            }
+        }
+
+        private void unlockLocal(LocalEntry entry) {
+            entry.localLock.unlock();
+            release(lockName);
+        }
+
+        /**
+         * 确认交接有接收者。hasQueuedThreads 只是近似值：等待者可能在本线程仍持有本地锁时超时或被中断，
+         * 其 {@link #giveUp} 无法获取本地锁，也就不会释放 Redis 锁。交接后若没有线程持有或等待本地锁，
+         * 由本线程收回本地锁并释放 Redis 锁，避免 Redis 锁在没有本地持有者的情况下一直被续期。
+         * 仍有等待者时由其获取本地锁继承 Redis 锁，或在放弃时通过 giveUp 释放。
+         */
+        private void settleHandoff(LocalEntry entry) {
+            if (entry.remoteHeld && !entry.localLock.isLocked() && !entry.localLock.hasQueuedThreads()
+                    && entry.localLock.tryLock()) {
+                try {
+                    if (entry.remoteHeld && !entry.localLock.hasQueuedThreads()) {
+                        releaseRemote(entry);
+                    }
+                } finally {
+                    entry.localLock.unlock();
+                }
+            }
+        }
+
+        /**
+         * 等待者放弃获取锁。若前一个持有者刚把 Redis 锁交给了本地等待者，而本线程是最后一个等待者，
+         * 则由本线程释放 Redis 锁，避免 Redis 锁在没有本地持有者的情况下一直被续期。
+         */
+        private void giveUp(LocalEntry entry) {
+            if (entry.remoteHeld && entry.localLock.tryLock()) {
+                try {
+                    if (entry.remoteHeld && !entry.localLock.hasQueuedThreads()) {
+                        releaseRemote(entry);
+                    }
+                } finally {
+                    entry.localLock.unlock();
+                }
+            }
+            release(lockName);
+        }
+    }
+
+    private static <T> T await(RFuture<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static <T> T awaitUninterruptibly(RFuture<T> future) {
+        try {
+            return future.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,58 @@
+package com.im.common.cache.lock.impl;
+
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 锁名称的校验与规范化。
+ */
+final class LockNames {
+
+    private LockNames() {
+    }
+
+    /**
+     * 校验并组合完整的锁名称。
+     *
+     * @param prefix   锁名称前缀
+     * @param lockName 锁的名称
+     * @return prefix + lockName
+     */
+    static String full(String prefix, String lockName) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new IllegalArgumentException("Prefix cannot be null or empty");
+        }
+        if (!StringUtils.hasText(lockName)) {
+            throw new IllegalArgumentException("Lock name cannot be null or empty");
+        }
+        return prefix + lockName;
+    }
+
+    /**
+     * 返回去重并按字典序排序的完整锁名称，作为所有联锁共同的获取顺序。
+     *
+     * @param prefix    锁名称前缀
+     * @param lockNames 锁的名称集合
+     * @return 排序后的完整锁名称
+     */
+    static List<String> sorted(String prefix, Collection<String> lockNames) {
+        if (!StringUtils.hasText(prefix)) {
+            throw new IllegalArgumentException("Prefix cannot be null or empty");
+        }
+        if (lockNames == null || lockNames.isEmpty()) {
+            throw new IllegalArgumentException("Lock names cannot be null or empty");
+        }
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String lockName : lockNames) {
+            if (!StringUtils.hasText(lockName)) {
+                throw new IllegalArgumentException("Lock name cannot be null or empty");
+            }
+            sorted.add(prefix + lockName);
+        }
+        return new ArrayList<>(sorted);
+    }
+}
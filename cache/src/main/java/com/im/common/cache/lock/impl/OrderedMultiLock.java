@@ -0,0 +1,217 @@
+package com.im.common.cache.lock.impl;
+
+import com.im.common.cache.lock.DistributedLock;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按固定顺序依次获取多把锁的联锁。
+ * 调用方需保证所有联锁使用相同的顺序（见 {@link LockNames#sorted}），从而不会相互等待造成死锁；
+ * 任意一把锁获取失败时，按相反顺序释放已获取的锁。等待时间是所有锁共享的总等待时间。
+ */
+class OrderedMultiLock implements DistributedLock {
+
+    private final String lockName;
+
+    private final List<DistributedLock> locks;
+
+    OrderedMultiLock(List<DistributedLock> locks) {
+        StringBuilder name = new StringBuilder();
+        for (DistributedLock lock : locks) {
+            if (name.length() > 0) {
+                name.append(',');
+            }
+            name.append(lock.getLockName());
+        }
+        this.lockName = name.toString();
+        this.locks = locks;
+    }
+
+    @Override
+    public boolean tryLock() {
+        for (int i = 0; i < locks.size(); i++) {
+            boolean locked;
+            try {
+                locked = locks.get(i).tryLock();
+            } catch (RuntimeException e) {
+                unlockFirst(i);
+                throw e;
+            }
+            if (!locked) {
+                unlockFirst(i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return tryLock(waitTime, -1L, unit);
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        for (int i = 0; i < locks.size(); i++) {
+            long remaining = Math.max(0L, deadline - System.nanoTime());
+            boolean locked;
+            try {
+                locked = leaseTime > 0
+                        ? locks.get(i).tryLock(remaining, unit.toNanos(leaseTime), TimeUnit.NANOSECONDS)
+                        : locks.get(i).tryLock(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException | RuntimeException e) {
+                unlockFirst(i);
+                throw e;
+            }
+            if (!locked) {
+                unlockFirst(i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void lock() {
+        for (int i = 0; i < locks.size(); i++) {
+            try {
+                locks.get(i).lock();
+            } catch (RuntimeException e) {
+                unlockFirst(i);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void lock(long leaseTime, TimeUnit unit) {
+        for (int i = 0; i < locks.size(); i++) {
+            try {
+                locks.get(i).lock(leaseTime, unit);
+            } catch (RuntimeException e) {
+                unlockFirst(i);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean unlock() {
+        boolean released = true;
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            released &= locks.get(i).unlock();
+        }
+        return released;
+    }
+
+    /**
+     * 返回的 Future 被取消或提前完成（如 orTimeout）时取消正在进行的获取，之后才获取成功的锁会被释放。
+     */
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken) {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<Boolean>> pending = new AtomicReference<>();
+        result.whenComplete((locked, error) -> {
+            CompletableFuture<Boolean> step = pending.get();
+            if (step != null) {
+                step.cancel(false);
+            }
+        });
+        tryLockAsync(0, deadline, leaseTime > 0 ? unit.toNanos(leaseTime) : -1L, ownerToken, result, pending);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unlockAsync(long ownerToken) {
+        CompletableFuture<Boolean> released = CompletableFuture.completedFuture(true);
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            DistributedLock lock = locks.get(i);
+            released = released.thenCombine(lock.unlockAsync(ownerToken), Boolean::logicalAnd);
+        }
+        return released;
+    }
+
+    /**
+     * 依次异步获取第 index 把及之后的锁，失败或异常时按相反顺序释放前 index 把锁。
+     * result 已完成时不再继续获取，并释放已获取的锁。
+     */
+    private void tryLockAsync(int index, long deadline, long leaseNanos, long ownerToken,
+                              CompletableFuture<Boolean> result, AtomicReference<CompletableFuture<Boolean>> pending) {
+        if (result.isDone()) {
+            unlockFirstAsync(index, ownerToken);
+            return;
+        }
+        if (index == locks.size()) {
+            if (!result.complete(true)) {
+                unlockFirstAsync(index, ownerToken);
+            }
+            return;
+        }
+        long remaining = Math.max(0L, deadline - System.nanoTime());
+        CompletableFuture<Boolean> step = locks.get(index).tryLockAsync(remaining, leaseNanos, TimeUnit.NANOSECONDS, ownerToken);
+        pending.set(step);
+        if (result.isDone()) {
+            // result 在设置 pending 之前完成，取消回调没有看到本次获取
+            step.cancel(false);
+        }
+        step.whenComplete((locked, error) -> {
+            if (error == null && Boolean.TRUE.equals(locked)) {
+                tryLockAsync(index + 1, deadline, leaseNanos, ownerToken, result, pending);
+                return;
+            }
+            unlockFirstAsync(index, ownerToken).whenComplete((v, e) -> {
+                if (error == null) {
+                    result.complete(false);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<Boolean> unlockFirstAsync(int count, long ownerToken) {
+        CompletableFuture<Boolean> released = CompletableFuture.completedFuture(true);
+        for (int i = count - 1; i >= 0; i--) {
+            DistributedLock lock = locks.get(i);
+            // 前一把锁释放完成（无论成功与否）后再释放下一把
+            released = released.handle((v, e) -> null).thenCompose(v -> lock.unlockAsync(ownerToken));
+        }
+        return released.handle((v, e) -> true);
+    }
+
+    @Override
+    public boolean isLocked() {
+        for (DistributedLock lock : locks) {
+            if (lock.isLocked()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread() {
+        for (DistributedLock lock : locks) {
+            if (!lock.isHeldByCurrentThread()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getLockName() {
+        return lockName;
+    }
+
+    private void unlockFirst(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,745 @@
+package com.im.common.cache.lock.impl;
+
+import com.im.common.cache.lock.DistributedLock;
+import com.im.common.cache.lock.DistributedLockFactory;
+import com.im.common.cache.lock.DistributedReadWriteLock;
+import com.im.common.cache.lock.FencedLock;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 StringRedisTemplate 的分布式锁工厂实现类，不依赖 Redisson。
+ *
+ * <p>锁是一个字符串键，值为持有者标识（节点 ID + 线程 ID）：通过 Lua 脚本执行 SET NX PX 获取，
+ * 成功时在同一脚本中对计数键执行 INCR，得到单调递增的防护令牌（见 {@link FencedLock}）；
+ * 释放时由 Lua 脚本比较持有者后再删除，不会误删其他持有者的锁。同一线程的重入只在本地计数，不访问 Redis。
+ * 未指定过期时间（leaseTime）的锁以看门狗超时时间作为过期时间，并由看门狗线程每隔超时时间的 1/3 续期，
+ * 节点宕机后锁最多在看门狗超时时间后自动释放。获取失败时按退避间隔重试，不订阅解锁消息；
+ * 异步加锁的重试由调度线程池定时执行，等待期间不占用线程。</p>
+ *
+ * <p>同一把锁的相关键使用 {lockName} 哈希标签，在 Redis Cluster 中位于同一个槽位。
+ * 防护令牌的计数键不设置过期时间，以保证令牌在锁过期后仍然单调递增。
+ * 读写锁同样基于 Lua 脚本实现：读锁之间不互斥，写锁需要等待所有读锁释放（不保证写锁优先）。
+ * 每个读者在读锁有序集合中有各自的过期时间（Redis 服务器时间），宕机读者的条目到期后在获取写锁前被清除，
+ * 不会因其他读者不断续期而永久阻塞写锁。</p>
+ *
+ * <p>公平锁与同名的互斥锁使用同一个锁键，另外维护按入队时间排序的等待队列：只有队首的等待者可以获取锁。
+ * 等待者每次重试时刷新自己在队列中的超时时间，放弃等待时出队；宕机的等待者在超时后被移出队列。
+ * 同名的非公平锁不参与排队。</p>
+ *
+ * 使用 @ConditionalOnExpression 注解，根据配置决定是否加载该类。
+ * 配置项：cache.distributed.type=redis 且未启用 cache.distributed.redisson.enabled 时启用此实现，
+ * 看门狗超时时间由 cache.distributed.lock.watchdog-timeout-millis 配置（默认 30000）。
+ */
+@Component
+@ConditionalOnExpression("'${cache.distributed.type:}' == 'redis' && !${cache.distributed.redisson.enabled:false}")
+public class RedisLockFactory implements DistributedLockFactory, DisposableBean {
+
+    /**
+     * 默认的锁名称前缀。
+     */
+    private static final String DEFAULT_LOCK_PREFIX = "lock:";
+
+    /**
+     * 获取失败后的最小与最大重试间隔（毫秒）。
+     */
+    private static final long MIN_RETRY_MILLIS = 5;
+
+    private static final long MAX_RETRY_MILLIS = 200;
+
+    /**
+     * 公平锁等待者在队列中的超时时间（毫秒），等待者每次重试时刷新，应远大于最大重试间隔。
+     */
+    private static final long FAIR_QUEUE_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * 读取 Redis 服务器时间（毫秒）到变量 now。脚本中先调用 TIME 再写入需要按命令复制（Redis 5 起为默认行为）。
+     */
+    private static final String NOW_LUA =
+            "redis.replicate_commands()\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n";
+
+    /**
+     * 获取互斥锁：SET NX PX 成功后对计数键 INCR，返回防护令牌；失败时返回锁剩余过期时间的相反数（不大于 0）。
+     * KEYS：锁键、计数键；ARGV：持有者标识、过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then\n" +
+            "  return redis.call('INCR', KEYS[2])\n" +
+            "end\n" +
+            "return -math.max(redis.call('PTTL', KEYS[1]), 0)", Long.class);
+
+    /**
+     * 获取读锁：没有其他持有者的写锁时，把持有者加入读锁有序集合，分值为该读者的过期时间，返回 1；
+     * 失败时返回写锁剩余过期时间的相反数。读锁键的过期时间只延长不缩短，始终不早于最晚到期的读者。
+     * KEYS：写锁键、读锁键；ARGV：持有者标识、过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> READ_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "local writer = redis.call('GET', KEYS[1])\n" +
+            "if writer and writer ~= ARGV[1] then\n" +
+            "  return -math.max(redis.call('PTTL', KEYS[1]), 0)\n" +
+            "end\n" +
+            NOW_LUA +
+            "redis.call('ZADD', KEYS[2], now + tonumber(ARGV[2]), ARGV[1])\n" +
+            "if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then\n" +
+            "  redis.call('PEXPIRE', KEYS[2], ARGV[2])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 获取写锁：先清除已过期的读者，没有其他读者时 SET NX PX，成功后返回防护令牌；
+     * 失败时返回最早到期的读者或写锁的剩余时间的相反数。
+     * KEYS：写锁键、读锁键、计数键；ARGV：持有者标识、过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> WRITE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            NOW_LUA +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)\n" +
+            "local readers = redis.call('ZCARD', KEYS[2])\n" +
+            "if readers > 1 or (readers == 1 and not redis.call('ZSCORE', KEYS[2], ARGV[1])) then\n" +
+            "  local first = redis.call('ZRANGE', KEYS[2], 0, 0, 'WITHSCORES')\n" +
+            "  return -math.max(tonumber(first[2]) - now, 0)\n" +
+            "end\n" +
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then\n" +
+            "  return redis.call('INCR', KEYS[3])\n" +
+            "end\n" +
+            "return -math.max(redis.call('PTTL', KEYS[1]), 0)", Long.class);
+
+    /**
+     * 获取公平锁：先移出等待超时的等待者，锁空闲且等待队列为空或队首为该持有者时 SET NX PX，
+     * 成功后出队并返回防护令牌；失败时（ARGV[3] 大于 0 时）入队或刷新等待超时时间，返回锁剩余过期时间的相反数。
+     * 等待队列按入队时间排序，超时集合的分值为各等待者的等待超时时间。
+     * KEYS：锁键、等待队列键、等待超时键、计数键；ARGV：持有者标识、过期时间（毫秒）、等待超时时间（毫秒）。
+     */
+    private static final RedisScript<Long> FAIR_LOCK_SCRIPT = new DefaultRedisScript<>(
+            NOW_LUA +
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', now)\n" +
+            "for _, waiter in ipairs(expired) do\n" +
+            "  redis.call('ZREM', KEYS[2], waiter)\n" +
+            "end\n" +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', now)\n" +
+            "local head = redis.call('ZRANGE', KEYS[2], 0, 0)[1]\n" +
+            "if (not head or head == ARGV[1]) and redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then\n" +
+            "  redis.call('ZREM', KEYS[2], ARGV[1])\n" +
+            "  redis.call('ZREM', KEYS[3], ARGV[1])\n" +
+            "  return redis.call('INCR', KEYS[4])\n" +
+            "end\n" +
+            "if tonumber(ARGV[3]) > 0 then\n" +
+            "  redis.call('ZADD', KEYS[2], 'NX', now, ARGV[1])\n" +
+            "  redis.call('ZADD', KEYS[3], now + tonumber(ARGV[3]), ARGV[1])\n" +
+            "end\n" +
+            "return -math.max(redis.call('PTTL', KEYS[1]), 0)", Long.class);
+
+    /**
+     * 放弃等待公平锁：从等待队列中移出。KEYS：等待队列键、等待超时键；ARGV：持有者标识。
+     */
+    private static final RedisScript<Long> FAIR_CANCEL_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZREM', KEYS[2], ARGV[1])\n" +
+            "return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+    /**
+     * 比较持有者后删除锁键。KEYS：锁键；ARGV：持有者标识。
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  return redis.call('DEL', KEYS[1])\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    /**
+     * 从读锁有序集合中移除持有者，没有读者时删除读锁键。KEYS：读锁键；ARGV：持有者标识。
+     */
+    private static final RedisScript<Long> READ_UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then\n" +
+            "  return 0\n" +
+            "end\n" +
+            "if redis.call('ZCARD', KEYS[1]) == 0 then\n" +
+            "  redis.call('DEL', KEYS[1])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 比较持有者后续期锁键。KEYS：锁键；ARGV：持有者标识、过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  return redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    /**
+     * 持有者仍在读锁有序集合中且未过期时，延长该读者的过期时间并续期读锁键；已过期的条目移除并返回 0。
+     * KEYS：读锁键；ARGV：持有者标识、过期时间（毫秒）。
+     */
+    private static final RedisScript<Long> READ_RENEW_SCRIPT = new DefaultRedisScript<>(
+            NOW_LUA +
+            "local deadline = redis.call('ZSCORE', KEYS[1], ARGV[1])\n" +
+            "if not deadline then\n" +
+            "  return 0\n" +
+            "end\n" +
+            "if tonumber(deadline) <= now then\n" +
+            "  redis.call('ZREM', KEYS[1], ARGV[1])\n" +
+            "  return 0\n" +
+            "end\n" +
+            "redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[1])\n" +
+            "if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then\n" +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 看门狗超时时间（毫秒），即未指定过期时间的锁在 Redis 中的过期时间。
+     */
+    private final long watchdogTimeoutMillis;
+
+    /**
+     * 本节点的标识，与线程 ID 或持有者令牌组成持有者标识。
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 本节点各持有者持有的锁，键为 锁键 + "#" + 持有者标识。
+     */
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * 执行异步加锁重试与异步释放的线程池，其中的 Redis 调用会阻塞线程。
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 执行看门狗续期的单独线程，不与异步加锁共用，避免续期被排队的 Redis 调用延误导致锁过期。
+     */
+    private final ScheduledExecutorService watchdogScheduler;
+
+    /**
+     * 构造函数。
+     *
+     * @param stringRedisTemplate   StringRedisTemplate
+     * @param watchdogTimeoutMillis 看门狗超时时间（毫秒）
+     */
+    public RedisLockFactory(StringRedisTemplate stringRedisTemplate,
+                            @Value("${cache.distributed.lock.watchdog-timeout-millis:30000}") long watchdogTimeoutMillis) {
+        if (watchdogTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Watchdog timeout millis must be positive");
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.watchdogTimeoutMillis = watchdogTimeoutMillis;
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+            Thread thread = new Thread(r, "redis-lock-scheduler-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdogScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewInterval = Math.max(1L, watchdogTimeoutMillis / 3);
+        this.watchdogScheduler.scheduleWithFixedDelay(this::renewHolds, renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public FencedLock getLock(String lockName) {
+        return getLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    @Override
+    public FencedLock getLock(String prefix, String lockName) {
+        return newLock(LockNames.full(prefix, lockName));
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String lockName) {
+        return getReadWriteLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        String tag = "{" + fullLockName + "}";
+        String writeKey = tag + ":write";
+        String readKey = tag + ":read";
+        RedisLock readLock = new RedisLock(fullLockName, Mode.READ, readKey, Arrays.asList(writeKey, readKey));
+        RedisLock writeLock = new RedisLock(fullLockName, Mode.WRITE, writeKey, Arrays.asList(writeKey, readKey, tag + ":fence"));
+        return new DistributedReadWriteLock() {
+            @Override
+            public DistributedLock readLock() {
+                return readLock;
+            }
+
+            @Override
+            public FencedLock writeLock() {
+                return writeLock;
+            }
+
+            @Override
+            public String getLockName() {
+                return fullLockName;
+            }
+        };
+    }
+
+    @Override
+    public FencedLock getFairLock(String lockName) {
+        return getFairLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    /**
+     * 等待者通过轮询获取锁，不订阅解锁通知：锁释放后队首等待者在下一次重试时获得锁。
+     */
+    @Override
+    public FencedLock getFairLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        String tag = "{" + fullLockName + "}";
+        return new RedisLock(fullLockName, Mode.FAIR, tag,
+                Arrays.asList(tag, tag + ":queue", tag + ":queue:timeout", tag + ":fence"));
+    }
+
+    @Override
+    public DistributedLock getMultiLock(Collection<String> lockNames) {
+        return getMultiLock(DEFAULT_LOCK_PREFIX, lockNames);
+    }
+
+    /**
+     * 按排序后的锁名称依次获取各自的锁。各锁的哈希标签不同，在 Redis Cluster 中可能位于不同槽位，
+     * 因此不使用单个多键脚本一次获取。
+     */
+    @Override
+    public DistributedLock getMultiLock(String prefix, Collection<String> lockNames) {
+        List<String> fullLockNames = LockNames.sorted(prefix, lockNames);
+        List<DistributedLock> locks = new ArrayList<>(fullLockNames.size());
+        for (String fullLockName : fullLockNames) {
+            locks.add(newLock(fullLockName));
+        }
+        return locks.size() == 1 ? locks.get(0) : new OrderedMultiLock(locks);
+    }
+
+    private RedisLock newLock(String fullLockName) {
+        String tag = "{" + fullLockName + "}";
+        return new RedisLock(fullLockName, Mode.EXCLUSIVE, tag, Arrays.asList(tag, tag + ":fence"));
+    }
+
+    @Override
+    public String getFactoryName() {
+        return "redis";
+    }
+
+    @Override
+    public void destroy() {
+        watchdogScheduler.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    private void renewHolds() {
+        for (Hold hold : holds.values()) {
+            if (!hold.watchdog) {
+                continue;
+            }
+            try {
+                long start = System.nanoTime();
+                Long renewed = stringRedisTemplate.execute(hold.lock.mode.renewScript,
+                        Collections.singletonList(hold.lock.heldKey), hold.owner, String.valueOf(watchdogTimeoutMillis));
+                if (renewed == null || renewed == 0) {
+                    // 锁已过期或被删除，丢弃持有状态，之后的加锁不再按重入处理
+                    holds.remove(hold.lock.heldKey + "#" + hold.owner, hold);
+                    System.err.println("Lost distributed lock: " + hold.lock.lockName);
+                } else {
+                    hold.expireAt = start + TimeUnit.MILLISECONDS.toNanos(watchdogTimeoutMillis);
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to renew distributed lock: " + hold.lock.lockName + ", error: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 锁的类型，决定获取、释放与续期使用的脚本。
+     */
+    private enum Mode {
+
+        EXCLUSIVE(LOCK_SCRIPT, UNLOCK_SCRIPT, RENEW_SCRIPT),
+
+        READ(READ_LOCK_SCRIPT, READ_UNLOCK_SCRIPT, READ_RENEW_SCRIPT),
+
+        WRITE(WRITE_LOCK_SCRIPT, UNLOCK_SCRIPT, RENEW_SCRIPT),
+
+        FAIR(FAIR_LOCK_SCRIPT, UNLOCK_SCRIPT, RENEW_SCRIPT);
+
+        private final RedisScript<Long> lockScript;
+
+        private final RedisScript<Long> unlockScript;
+
+        private final RedisScript<Long> renewScript;
+
+        Mode(RedisScript<Long> lockScript, RedisScript<Long> unlockScript, RedisScript<Long> renewScript) {
+            this.lockScript = lockScript;
+            this.unlockScript = unlockScript;
+            this.renewScript = renewScript;
+        }
+    }
+
+    /**
+     * 某个持有者（线程或持有者令牌）对某把锁的持有状态。
+     */
+    private static final class Hold {
+
+        private final RedisLock lock;
+
+        private final String owner;
+
+        private final long fencingToken;
+
+        /**
+         * 重入次数，只由持有者修改。
+         */
+        private int count = 1;
+
+        /**
+         * 是否由看门狗续期。
+         */
+        private final boolean watchdog;
+
+        /**
+         * 锁在本地时钟（{@link System#nanoTime()}）上的最晚过期时间，从发出加锁或续期命令前开始计算，
+         * 不晚于 Redis 中的实际过期时间。过期后该持有状态不再有效。
+         */
+        private volatile long expireAt;
+
+        private Hold(RedisLock lock, String owner, long fencingToken, boolean watchdog, long expireAt) {
+            this.lock = lock;
+            this.owner = owner;
+            this.fencingToken = fencingToken;
+            this.watchdog = watchdog;
+            this.expireAt = expireAt;
+        }
+
+        private boolean expired() {
+            return System.nanoTime() - expireAt >= 0;
+        }
+    }
+
+    private final class RedisLock implements FencedLock {
+
+        private final String lockName;
+
+        private final Mode mode;
+
+        /**
+         * 持有者写入的键：互斥锁与写锁为锁键，读锁为读锁哈希键。
+         */
+        private final String heldKey;
+
+        /**
+         * 获取脚本的 KEYS。
+         */
+        private final List<String> lockKeys;
+
+        private RedisLock(String lockName, Mode mode, String heldKey, List<String> lockKeys) {
+            this.lockName = lockName;
+            this.mode = mode;
+            this.heldKey = heldKey;
+            this.lockKeys = lockKeys;
+        }
+
+        @Override
+        public boolean tryLock() {
+            String owner = threadOwner();
+            return reenter(owner) || attempt(owner, -1L, false) > 0;
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+            return tryLock(waitTime, -1L, unit);
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            String owner = threadOwner();
+            if (reenter(owner)) {
+                return true;
+            }
+            long leaseMillis = leaseTime > 0 ? Math.max(1L, unit.toMillis(leaseTime)) : -1L;
+            long deadline = System.nanoTime() + unit.toNanos(waitTime);
+            long retryMillis = MIN_RETRY_MILLIS;
+            boolean queued = false;
+            try {
+                while (true) {
+                    long result = attempt(owner, leaseMillis, true);
+                    if (result > 0) {
+                        queued = false;
+                        return true;
+                    }
+                    queued = true;
+                    long delay = retryDelay(result, retryMillis, deadline);
+                    if (delay <= 0) {
+                        return false;
+                    }
+                    Thread.sleep(delay);
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+            } finally {
+                if (queued) {
+                    cancel(owner);
+                }
+            }
+        }
+
+        @Override
+        public void lock() {
+            lock(-1L, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void lock(long leaseTime, TimeUnit unit) {
+            String owner = threadOwner();
+            if (reenter(owner)) {
+                return;
+            }
+            long leaseMillis = leaseTime > 0 ? Math.max(1L, unit.toMillis(leaseTime)) : -1L;
+            long retryMillis = MIN_RETRY_MILLIS;
+            boolean interrupted = false;
+            boolean queued = false;
+            try {
+                while (true) {
+                    // 在同一轮等待中重试，公平锁的等待者不会因重试而失去排队位置
+                    long result = attempt(owner, leaseMillis, true);
+                    if (result > 0) {
+                        queued = false;
+                        return;
+                    }
+                    queued = true;
+                    try {
+                        Thread.sleep(Math.max(1L, Math.min(retryMillis, result < 0 ? -result : retryMillis)));
+                    } catch (InterruptedException e) {
+                        // 与 Redisson 的 lock() 一致，不响应中断，获得锁后恢复中断状态
+                        interrupted = true;
+                    }
+                    retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                }
+            } finally {
+                if (queued) {
+                    cancel(owner);
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public boolean unlock() {
+            return release(threadOwner());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken) {
+            String owner = tokenOwner(ownerToken);
+            long leaseMillis = leaseTime > 0 ? Math.max(1L, unit.toMillis(leaseTime)) : -1L;
+            long deadline = System.nanoTime() + unit.toNanos(waitTime);
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            scheduler.execute(() -> attemptAsync(owner, leaseMillis, deadline, MIN_RETRY_MILLIS, future));
+            return future;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> unlockAsync(long ownerToken) {
+            return CompletableFuture.supplyAsync(() -> release(tokenOwner(ownerToken)), scheduler);
+        }
+
+        @Override
+        public boolean isLocked() {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(heldKey));
+        }
+
+        @Override
+        public boolean isHeldByCurrentThread() {
+            String owner = threadOwner();
+            if (liveHold(owner) == null) {
+                return false;
+            }
+            if (mode == Mode.READ) {
+                return stringRedisTemplate.opsForZSet().score(heldKey, owner) != null;
+            }
+            return owner.equals(stringRedisTemplate.opsForValue().get(heldKey));
+        }
+
+        @Override
+        public String getLockName() {
+            return lockName;
+        }
+
+        @Override
+        public long getFencingToken() {
+            return fencingToken(threadOwner());
+        }
+
+        @Override
+        public long getFencingToken(long ownerToken) {
+            return fencingToken(tokenOwner(ownerToken));
+        }
+
+        private long fencingToken(String owner) {
+            Hold hold = liveHold(owner);
+            return hold != null ? hold.fencingToken : -1L;
+        }
+
+        /**
+         * 持有者已持有该锁时增加重入次数。
+         */
+        private boolean reenter(String owner) {
+            Hold hold = liveHold(owner);
+            if (hold == null) {
+                return false;
+            }
+            hold.count++;
+            return true;
+        }
+
+        /**
+         * 返回持有者仍然有效的持有状态。过期时间已过（未续期的锁到期未释放、看门狗续期失败）的持有状态被丢弃，
+         * 因为锁可能已被其他节点获取，同一线程 ID 或持有者令牌之后的加锁需要重新访问 Redis。
+         */
+        private Hold liveHold(String owner) {
+            String holdKey = heldKey + "#" + owner;
+            Hold hold = holds.get(holdKey);
+            if (hold != null && hold.expired()) {
+                holds.remove(holdKey, hold);
+                return null;
+            }
+            return hold;
+        }
+
+        /**
+         * 执行一次获取脚本。
+         *
+         * @param owner       持有者标识
+         * @param leaseMillis 过期时间（毫秒），不大于 0 时使用看门狗续期
+         * @param enqueue     获取失败时是否进入公平锁的等待队列，之后不再等待时需调用 {@link #cancel(String)}
+         * @return 大于 0 表示获取成功，否则为锁剩余过期时间的相反数
+         */
+        private long attempt(String owner, long leaseMillis, boolean enqueue) {
+            boolean watchdog = leaseMillis <= 0;
+            long expireAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(watchdog ? watchdogTimeoutMillis : leaseMillis);
+            Long result = stringRedisTemplate.execute(mode.lockScript, lockKeys, owner,
+                    String.valueOf(watchdog ? watchdogTimeoutMillis : leaseMillis),
+                    String.valueOf(enqueue ? FAIR_QUEUE_TIMEOUT_MILLIS : 0L));
+            if (result == null) {
+                return 0L;
+            }
+            if (result > 0) {
+                holds.put(heldKey + "#" + owner, new Hold(this, owner, mode == Mode.READ ? -1L : result, watchdog, expireAt));
+            }
+            return result;
+        }
+
+        /**
+         * 放弃等待时从公平锁的等待队列中移出，其他类型的锁不排队。
+         */
+        private void cancel(String owner) {
+            if (mode != Mode.FAIR) {
+                return;
+            }
+            try {
+                stringRedisTemplate.execute(FAIR_CANCEL_SCRIPT, lockKeys.subList(1, 3), owner);
+            } catch (RuntimeException e) {
+                // 出队失败时等待者在超时后被移出队列
+                System.err.println("Failed to leave fair lock queue: " + lockName + ", error: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 在调度线程上执行一次异步获取，失败时定时重试而不是阻塞等待。
+         */
+        private void attemptAsync(String owner, long leaseMillis, long deadline, long retryMillis,
+                                  CompletableFuture<Boolean> future) {
+            if (future.isDone()) {
+                cancel(owner);
+                return;
+            }
+            try {
+                if (reenter(owner)) {
+                    future.complete(true);
+                    return;
+                }
+                long result = attempt(owner, leaseMillis, true);
+                if (result > 0) {
+                    if (!future.complete(true)) {
+                        // 调用方已取消，释放刚获取的锁
+                        release(owner);
+                    }
+                    return;
+                }
+                long delay = retryDelay(result, retryMillis, deadline);
+                if (delay <= 0) {
+                    cancel(owner);
+                    future.complete(false);
+                    return;
+                }
+                long nextRetryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                scheduler.schedule(() -> attemptAsync(owner, leaseMillis, deadline, nextRetryMillis, future),
+                        delay, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                cancel(owner);
+                future.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * 计算下次重试前的等待时间，不超过锁的剩余过期时间与剩余等待时间。
+         *
+         * @return 等待时间（毫秒），不大于 0 表示已超时
+         */
+        private long retryDelay(long result, long retryMillis, long deadline) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return 0L;
+            }
+            return Math.max(1L, Math.min(Math.min(retryMillis, remainingMillis), result < 0 ? -result : retryMillis));
+        }
+
+        private boolean release(String owner) {
+            String holdKey = heldKey + "#" + owner;
+            Hold hold = holds.get(holdKey);
+            if (hold == null) {
+                return false;
+            }
+            if (!hold.expired() && --hold.count > 0) {
+                return true;
+            }
+            holds.remove(holdKey, hold);
+            Long released = stringRedisTemplate.execute(mode.unlockScript, Collections.singletonList(heldKey), owner);
+            // 返回 0 表示锁已过期或不再由该持有者持有
+            return released != null && released > 0;
+        }
+
+        private String threadOwner() {
+            return nodeId + ":" + Thread.currentThread().threadId();
+        }
+
+        private String tokenOwner(long ownerToken) {
+            return nodeId + ":" + ownerToken;
+        }
+    }
+}
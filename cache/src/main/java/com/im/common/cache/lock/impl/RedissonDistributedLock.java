@@ -0,0 +1,94 @@
+package com.im.common.cache.lock.impl;
+
+import com.im.common.cache.lock.DistributedLock;
+import org.redisson.api.RLock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Redisson {@link RLock} 的分布式锁实现，联锁由 {@link OrderedMultiLock} 组合多个该实现。
+ */
+class RedissonDistributedLock implements DistributedLock {
+
+    private final String lockName;
+
+    private final RLock rLock;
+
+    RedissonDistributedLock(String lockName, RLock rLock) {
+        this.lockName = lockName;
+        this.rLock = rLock;
+    }
+
+    @Override
+    public boolean tryLock() {
+        return rLock.tryLock();
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return rLock.tryLock(waitTime, unit);
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        return rLock.tryLock(waitTime, leaseTime, unit);
+    }
+
+    @Override
+    public void lock() {
+        rLock.lock();
+    }
+
+    @Override
+    public void lock(long leaseTime, TimeUnit unit) {
+        rLock.lock(leaseTime, unit);
+    }
+
+    @Override
+    public boolean unlock() {
+        try {
+            rLock.unlock();
+            return true;
+        } catch (IllegalMonitorStateException e) {
+            // 当前线程不持有该锁
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken) {
+        return rLock.tryLockAsync(waitTime, leaseTime > 0 ? leaseTime : -1L, unit, ownerToken).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unlockAsync(long ownerToken) {
+        return rLock.unlockAsync(ownerToken).toCompletableFuture().handle((v, e) -> {
+            if (e == null) {
+                return true;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalMonitorStateException) {
+                // 该令牌不持有该锁
+                return false;
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        });
+    }
+
+    @Override
+    public boolean isLocked() {
+        return rLock.isLocked();
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread() {
+        return rLock.isHeldByCurrentThread();
+    }
+
+    @Override
+    public String getLockName() {
+        return lockName;
+    }
+}
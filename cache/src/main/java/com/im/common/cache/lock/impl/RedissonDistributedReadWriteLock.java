@@ -0,0 +1,38 @@
+package com.im.common.cache.lock.impl;
+
+import com.im.common.cache.lock.DistributedLock;
+import com.im.common.cache.lock.DistributedReadWriteLock;
+import org.redisson.api.RReadWriteLock;
+
+/**
+ * 基于 Redisson {@link RReadWriteLock} 的分布式读写锁实现。
+ */
+class RedissonDistributedReadWriteLock implements DistributedReadWriteLock {
+
+    private final String lockName;
+
+    private final DistributedLock readLock;
+
+    private final DistributedLock writeLock;
+
+    RedissonDistributedReadWriteLock(String lockName, RReadWriteLock readWriteLock) {
+        this.lockName = lockName;
+        this.readLock = new RedissonDistributedLock(lockName, readWriteLock.readLock());
+        this.writeLock = new RedissonDistributedLock(lockName, readWriteLock.writeLock());
+    }
+
+    @Override
+    public DistributedLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public DistributedLock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public String getLockName() {
+        return lockName;
+    }
+}
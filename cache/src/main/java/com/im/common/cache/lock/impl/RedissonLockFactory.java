@@ -1,6 +1,7 @@
 package com.im.common.cache.lock.impl;
 import com.im.common.cache.lock.DistributedLock;
 import com.im.common.cache.lock.DistributedLockFactory;
+import com.im.common.cache.lock.DistributedReadWriteLock;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 基于 Redisson 的分布式锁工厂实现类。
@@ -48,59 +51,48 @@ public class RedissonLockFactory implements DistributedLockFactory {
         // 从 Redisson 客户端获取 RLock 实例
         RLock rLock = redissonClient.getLock(fullLockName);
 
-        // 返回匿名内部类实现的 DistributedLock
-        return new DistributedLock() {
-            @Override
-            public boolean tryLock() {
-                return rLock.tryLock();
-            }
-
-            @Override
-            public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
-                return rLock.tryLock(waitTime, unit);
-            }
-
-            @Override
-            public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
-                return rLock.tryLock(waitTime, leaseTime, unit);
-            }
-
-            @Override
-            public void lock() {
-                rLock.lock();
-            }
-
-            @Override
-            public void lock(long leaseTime, TimeUnit unit) {
-                rLock.lock(leaseTime, unit);
-            }
-
-            @Override
-            public boolean unlock() {
-                try {
-                    rLock.unlock();
-                    return true;
-                } catch (IllegalMonitorStateException e) {
-                    // 当前线程不持有该锁
-                    return false;
-                }
-            }
-
-            @Override
-            public boolean isLocked() {
-                return rLock.isLocked();
-            }
-
-            @Override
-            public boolean isHeldByCurrentThread() {
-                return rLock.isHeldByCurrentThread();
-            }
-
-            @Override
-            public String getLockName() {
-                return fullLockName;
-            }
-        };
+        return new RedissonDistributedLock(fullLockName, rLock);
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String lockName) {
+        return getReadWriteLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        return new RedissonDistributedReadWriteLock(fullLockName, redissonClient.getReadWriteLock(fullLockName));
+    }
+
+    @Override
+    public DistributedLock getFairLock(String lockName) {
+        return getFairLock(DEFAULT_LOCK_PREFIX, lockName);
+    }
+
+    @Override
+    public DistributedLock getFairLock(String prefix, String lockName) {
+        String fullLockName = LockNames.full(prefix, lockName);
+        return new RedissonDistributedLock(fullLockName, redissonClient.getFairLock(fullLockName));
+    }
+
+    @Override
+    public DistributedLock getMultiLock(Collection<String> lockNames) {
+        return getMultiLock(DEFAULT_LOCK_PREFIX, lockNames);
+    }
+
+    /**
+     * 按排序后的锁名称依次获取各自的锁，失败时按相反顺序释放已获取的锁。
+     * 不使用 RedissonMultiLock：其 isLocked 与 isHeldByCurrentThread 会抛出 UnsupportedOperationException。
+     */
+    @Override
+    public DistributedLock getMultiLock(String prefix, Collection<String> lockNames) {
+        List<String> fullLockNames = LockNames.sorted(prefix, lockNames);
+        List<DistributedLock> locks = new ArrayList<>(fullLockNames.size());
+        for (String fullLockName : fullLockNames) {
+            locks.add(new RedissonDistributedLock(fullLockName, redissonClient.getLock(fullLockName)));
+        }
+        return locks.size() == 1 ? locks.get(0) : new OrderedMultiLock(locks);
     }
 
     @Override
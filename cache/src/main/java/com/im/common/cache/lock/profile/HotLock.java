@@ -0,0 +1,74 @@
+package com.im.common.cache.lock.profile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一类锁在一个统计周期内的竞争情况，分位数与最大值为累计统计。
+ * 通过 JMX 以只读属性的形式展示。
+ */
+public class HotLock {
+
+    private final String name;
+
+    private final double waitTotalMillis;
+
+    private final long attempts;
+
+    private final long timeouts;
+
+    private final double waitP99Millis;
+
+    private final double waitMaxMillis;
+
+    private final double holdP99Millis;
+
+    HotLock(LockStats stats, long waitNanos, long attempts, long timeouts) {
+        this.name = stats.getName();
+        this.waitTotalMillis = waitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        this.attempts = attempts;
+        this.timeouts = timeouts;
+        this.waitP99Millis = stats.getWaitP99Millis();
+        this.waitMaxMillis = stats.getWaitMaxMillis();
+        this.holdP99Millis = stats.getHoldP99Millis();
+    }
+
+    /**
+     * 锁名称前缀。
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 周期内的总等待时间。
+     */
+    public double getWaitTotalMillis() {
+        return waitTotalMillis;
+    }
+
+    /**
+     * 周期内获取锁的尝试次数，包括超时。
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * 周期内获取超时的次数。
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getWaitP99Millis() {
+        return waitP99Millis;
+    }
+
+    public double getWaitMaxMillis() {
+        return waitMaxMillis;
+    }
+
+    public double getHoldP99Millis() {
+        return holdP99Millis;
+    }
+}
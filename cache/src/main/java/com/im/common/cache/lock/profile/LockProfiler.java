@@ -0,0 +1,146 @@
+package com.im.common.cache.lock.profile;
+
+import com.im.common.cache.lock.DistributedLockFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式锁竞争分析器。
+ *
+ * <p>把容器中所有的 {@link DistributedLockFactory} 包装为 {@link ProfiledLockFactory}，按锁名称前缀统计
+ * 等待时间与持有时间的分布、获取超时次数与释放失败次数；定时统计周期内等待时间最长的锁（热点锁），
+ * 与完整的统计一起通过 JMX（com.im.common.cache:type=LockProfiler）提供，用于定位造成尾延迟的临界区。</p>
+ *
+ * <p>包装后锁工厂 Bean 的实际类型为 {@link ProfiledLockFactory}，应通过 {@link DistributedLockFactory} 接口注入。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.distributed.lock.profiler.enabled=true 时启用，相关配置：
+ * <ul>
+ *     <li>cache.distributed.lock.profiler.report-interval-millis：热点锁统计周期，默认 60000，不大于 0 时不统计热点锁</li>
+ *     <li>cache.distributed.lock.profiler.top：热点锁的数量，默认 10</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "cache.distributed.lock.profiler.enabled", havingValue = "true")
+public class LockProfiler implements BeanPostProcessor, LockProfilerMXBean, InitializingBean, DisposableBean {
+
+    private static final String OBJECT_NAME = "com.im.common.cache:type=LockProfiler";
+
+    private final ConcurrentHashMap<String, LockStats> stats = new ConcurrentHashMap<>();
+
+    private final long reportIntervalMillis;
+
+    private final int top;
+
+    private volatile List<HotLock> hotLocks = Collections.emptyList();
+
+    private ScheduledExecutorService reporter;
+
+    /**
+     * 构造函数。
+     *
+     * @param reportIntervalMillis 热点锁统计周期（毫秒）
+     * @param top                  热点锁的数量
+     */
+    public LockProfiler(@Value("${cache.distributed.lock.profiler.report-interval-millis:60000}") long reportIntervalMillis,
+                        @Value("${cache.distributed.lock.profiler.top:10}") int top) {
+        this.reportIntervalMillis = reportIntervalMillis;
+        this.top = Math.max(1, top);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DistributedLockFactory && !(bean instanceof ProfiledLockFactory)) {
+            return new ProfiledLockFactory((DistributedLockFactory) bean, this);
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(this, name);
+        }
+
+        if (reportIntervalMillis > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "lock-profiler-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleWithFixedDelay(this::report, reportIntervalMillis, reportIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Override
+    public List<LockStats> getLockStats() {
+        List<LockStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingDouble(LockStats::getTotalWaitMillis).reversed());
+        return result;
+    }
+
+    @Override
+    public List<HotLock> getHotLocks() {
+        return hotLocks;
+    }
+
+    @Override
+    public void reset() {
+        stats.values().forEach(LockStats::reset);
+    }
+
+    /**
+     * 获取指定类别的统计，不存在时创建。
+     *
+     * @param category 锁类别
+     * @return 统计
+     */
+    LockStats stats(String category) {
+        return stats.computeIfAbsent(category, LockStats::new);
+    }
+
+    /**
+     * 统计周期内等待时间最长的锁。
+     */
+    private void report() {
+        List<HotLock> contended = new ArrayList<>();
+        for (LockStats lockStats : stats.values()) {
+            long[] delta = lockStats.drainInterval();
+            if (delta[1] > 0) {
+                contended.add(new HotLock(lockStats, delta[0], delta[1], delta[2]));
+            }
+        }
+        contended.sort(Comparator.comparingDouble(HotLock::getWaitTotalMillis).reversed());
+        hotLocks = Collections.unmodifiableList(new ArrayList<>(contended.subList(0, Math.min(top, contended.size()))));
+    }
+}
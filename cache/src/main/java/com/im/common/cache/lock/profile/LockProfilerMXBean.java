@@ -0,0 +1,28 @@
+package com.im.common.cache.lock.profile;
+
+import java.util.List;
+
+/**
+ * 锁竞争分析的 JMX 视图，注册为 com.im.common.cache:type=LockProfiler。
+ */
+public interface LockProfilerMXBean {
+
+    /**
+     * 按累计等待时间从高到低排列的各类锁统计。
+     *
+     * @return 各类锁的统计
+     */
+    List<LockStats> getLockStats();
+
+    /**
+     * 最近一个统计周期内按等待时间从高到低排列的热点锁。
+     *
+     * @return 热点锁，未启用周期统计或周期内没有获取锁时为空
+     */
+    List<HotLock> getHotLocks();
+
+    /**
+     * 清空所有统计。
+     */
+    void reset();
+}
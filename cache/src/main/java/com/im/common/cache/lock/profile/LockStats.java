@@ -0,0 +1,139 @@
+package com.im.common.cache.lock.profile;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一类锁（按锁名称前缀归类）的竞争统计：等待时间与持有时间的分布、获取超时次数与释放失败次数。
+ * 通过 JMX 以只读属性的形式展示。
+ */
+public class LockStats {
+
+    private final String name;
+
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+    private final LatencyHistogram holdTimes = new LatencyHistogram();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    private final LongAdder failedUnlocks = new LongAdder();
+
+    /**
+     * 上次统计热点锁时的累计值，用于计算统计周期内的增量。
+     */
+    private long reportedWaitNanos;
+
+    private long reportedAttempts;
+
+    private long reportedTimeouts;
+
+    LockStats(String name) {
+        this.name = name;
+    }
+
+    void recordAcquired(long waitNanos) {
+        waitTimes.record(waitNanos);
+    }
+
+    void recordTimeout(long waitNanos) {
+        waitTimes.record(waitNanos);
+        timeouts.increment();
+    }
+
+    void recordHold(long holdNanos) {
+        holdTimes.record(holdNanos);
+    }
+
+    void recordFailedUnlock() {
+        failedUnlocks.increment();
+    }
+
+    /**
+     * 锁名称前缀。
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取成功的次数。
+     */
+    public long getAcquired() {
+        return waitTimes.count() - timeouts.sum();
+    }
+
+    /**
+     * 获取超时（tryLock 返回 false）的次数。
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * 释放失败（未持有或已过期）的次数。
+     */
+    public long getFailedUnlocks() {
+        return failedUnlocks.sum();
+    }
+
+    public double getTotalWaitMillis() {
+        return toMillis(waitTimes.sum());
+    }
+
+    public double getWaitP50Millis() {
+        return toMillis(waitTimes.percentile(0.5));
+    }
+
+    public double getWaitP99Millis() {
+        return toMillis(waitTimes.percentile(0.99));
+    }
+
+    public double getWaitMaxMillis() {
+        return toMillis(waitTimes.max());
+    }
+
+    public double getHoldP50Millis() {
+        return toMillis(holdTimes.percentile(0.5));
+    }
+
+    public double getHoldP99Millis() {
+        return toMillis(holdTimes.percentile(0.99));
+    }
+
+    public double getHoldMaxMillis() {
+        return toMillis(holdTimes.max());
+    }
+
+    void reset() {
+        waitTimes.reset();
+        holdTimes.reset();
+        timeouts.reset();
+        failedUnlocks.reset();
+        synchronized (this) {
+            reportedWaitNanos = 0;
+            reportedAttempts = 0;
+            reportedTimeouts = 0;
+        }
+    }
+
+    /**
+     * 返回自上次调用以来新增的等待时间、获取尝试次数（包括超时）与超时次数，供热点锁统计使用。
+     *
+     * @return {等待时间增量（纳秒）, 获取尝试次数增量, 超时次数增量}
+     */
+    synchronized long[] drainInterval() {
+        long waitNanos = waitTimes.sum();
+        long attempts = waitTimes.count();
+        long timeoutCount = timeouts.sum();
+        long[] delta = {waitNanos - reportedWaitNanos, attempts - reportedAttempts, timeoutCount - reportedTimeouts};
+        reportedWaitNanos = waitNanos;
+        reportedAttempts = attempts;
+        reportedTimeouts = timeoutCount;
+        return delta;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
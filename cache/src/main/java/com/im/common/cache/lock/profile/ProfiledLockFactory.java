@@ -0,0 +1,360 @@
+package com.im.common.cache.lock.profile;
+
+import com.im.common.cache.lock.DistributedLock;
+import com.im.common.cache.lock.DistributedLockFactory;
+import com.im.common.cache.lock.DistributedReadWriteLock;
+import com.im.common.cache.lock.FencedLock;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 记录锁竞争统计的 {@link DistributedLockFactory} 装饰器，由 {@link LockProfiler} 包装到已有的锁工厂之外。
+ * 锁按名称前缀归类统计：锁名称截取到最后一个 ':'（包含），如 lock:group:123 归入 lock:group:，
+ * 联锁、读写锁与公平锁分别追加 [multi]、[read]、[write]、[fair] 后缀。
+ */
+public class ProfiledLockFactory implements DistributedLockFactory {
+
+    private final DistributedLockFactory delegate;
+
+    private final LockProfiler profiler;
+
+    /**
+     * 每获取多少次锁清理一次已过期的获取记录。
+     */
+    private static final int SWEEP_INTERVAL = 1024;
+
+    /**
+     * 各持有者持有各锁的获取记录，键为 锁名称 + "#" + 线程 ID（异步加锁为 "~" + 持有者令牌），
+     * 重入时压栈。双端队列只在 compute 系列方法中访问，与清理互斥。
+     */
+    private final ConcurrentHashMap<String, ArrayDeque<Acquisition>> acquireTimes = new ConcurrentHashMap<>();
+
+    /**
+     * 距上次清理的获取次数。
+     */
+    private final AtomicInteger acquisitionsSinceSweep = new AtomicInteger();
+
+    public ProfiledLockFactory(DistributedLockFactory delegate, LockProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    /**
+     * 获取被装饰的锁工厂。
+     *
+     * @return 被装饰的锁工厂
+     */
+    public DistributedLockFactory getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public DistributedLock getLock(String lockName) {
+        return wrap(delegate.getLock(lockName), "");
+    }
+
+    @Override
+    public DistributedLock getLock(String prefix, String lockName) {
+        return wrap(delegate.getLock(prefix, lockName), "");
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String lockName) {
+        return wrap(delegate.getReadWriteLock(lockName));
+    }
+
+    @Override
+    public DistributedReadWriteLock getReadWriteLock(String prefix, String lockName) {
+        return wrap(delegate.getReadWriteLock(prefix, lockName));
+    }
+
+    @Override
+    public DistributedLock getFairLock(String lockName) {
+        return wrap(delegate.getFairLock(lockName), "[fair]");
+    }
+
+    @Override
+    public DistributedLock getFairLock(String prefix, String lockName) {
+        return wrap(delegate.getFairLock(prefix, lockName), "[fair]");
+    }
+
+    @Override
+    public DistributedLock getMultiLock(Collection<String> lockNames) {
+        return wrap(delegate.getMultiLock(lockNames), "[multi]");
+    }
+
+    @Override
+    public DistributedLock getMultiLock(String prefix, Collection<String> lockNames) {
+        return wrap(delegate.getMultiLock(prefix, lockNames), "[multi]");
+    }
+
+    @Override
+    public String getFactoryName() {
+        return delegate.getFactoryName();
+    }
+
+    private DistributedReadWriteLock wrap(DistributedReadWriteLock readWriteLock) {
+        DistributedLock readLock = wrap(readWriteLock.readLock(), "[read]");
+        DistributedLock writeLock = wrap(readWriteLock.writeLock(), "[write]");
+        return new DistributedReadWriteLock() {
+            @Override
+            public DistributedLock readLock() {
+                return readLock;
+            }
+
+            @Override
+            public DistributedLock writeLock() {
+                return writeLock;
+            }
+
+            @Override
+            public String getLockName() {
+                return readWriteLock.getLockName();
+            }
+        };
+    }
+
+    private DistributedLock wrap(DistributedLock lock, String suffix) {
+        LockStats stats = profiler.stats(categoryOf(lock.getLockName()) + suffix);
+        String holdKey = lock.getLockName() + suffix;
+        if (lock instanceof FencedLock) {
+            return new ProfiledFencedLock((FencedLock) lock, stats, holdKey);
+        }
+        return new ProfiledLock(lock, stats, holdKey);
+    }
+
+    /**
+     * 截取锁名称到最后一个 ':'（包含）作为统计类别，联锁取第一个锁名称。
+     */
+    static String categoryOf(String lockName) {
+        int end = lockName.indexOf(',');
+        String first = end >= 0 ? lockName.substring(0, end) : lockName;
+        int separator = first.lastIndexOf(':');
+        return separator >= 0 ? first.substring(0, separator + 1) : first;
+    }
+
+    /**
+     * 清理过期时间已过的获取记录。带过期时间获取且未显式释放的锁不会再被释放，
+     * 锁名称通常带有 ID（如 lock:group:123），不清理时记录会无限增长。
+     */
+    private void sweepExpired() {
+        long now = System.nanoTime();
+        for (String key : acquireTimes.keySet()) {
+            acquireTimes.computeIfPresent(key, (k, times) -> {
+                times.removeIf(acquisition -> acquisition.isExpired(now));
+                return times.isEmpty() ? null : times;
+            });
+        }
+    }
+
+    /**
+     * 一次锁获取的时间与过期时间（System.nanoTime），未指定过期时间（看门狗续期）的锁不会过期。
+     */
+    private static final class Acquisition {
+
+        private final long acquiredAt;
+
+        private final long expireAt;
+
+        private final boolean leased;
+
+        private Acquisition(long acquiredAt, long leaseNanos) {
+            this.acquiredAt = acquiredAt;
+            this.leased = leaseNanos > 0;
+            this.expireAt = leased ? acquiredAt + leaseNanos : 0L;
+        }
+
+        private boolean isExpired(long now) {
+            return leased && now - expireAt >= 0;
+        }
+    }
+
+    private class ProfiledLock implements DistributedLock {
+
+        private final DistributedLock lock;
+
+        private final LockStats stats;
+
+        private final String holdKey;
+
+        private ProfiledLock(DistributedLock lock, LockStats stats, String holdKey) {
+            this.lock = lock;
+            this.stats = stats;
+            this.holdKey = holdKey;
+        }
+
+        @Override
+        public boolean tryLock() {
+            long start = System.nanoTime();
+            return acquired(lock.tryLock(), start, threadOwner(), -1L);
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, TimeUnit unit) throws InterruptedException {
+            long start = System.nanoTime();
+            return acquired(lock.tryLock(waitTime, unit), start, threadOwner(), -1L);
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            long start = System.nanoTime();
+            return acquired(lock.tryLock(waitTime, leaseTime, unit), start, threadOwner(), leaseNanos(leaseTime, unit));
+        }
+
+        @Override
+        public void lock() {
+            long start = System.nanoTime();
+            lock.lock();
+            acquired(true, start, threadOwner(), -1L);
+        }
+
+        @Override
+        public void lock(long leaseTime, TimeUnit unit) {
+            long start = System.nanoTime();
+            lock.lock(leaseTime, unit);
+            acquired(true, start, threadOwner(), leaseNanos(leaseTime, unit));
+        }
+
+        @Override
+        public boolean unlock() {
+            Long acquiredAt = popAcquireTime(threadOwner());
+            boolean released;
+            try {
+                released = lock.unlock();
+            } catch (RuntimeException e) {
+                stats.recordFailedUnlock();
+                throw e;
+            }
+            released(released, acquiredAt);
+            return released;
+        }
+
+        /**
+         * 返回的 Future 被取消或提前完成（如 orTimeout）时取消内部的获取，之后才获取成功的锁会被释放并记为超时。
+         */
+        @Override
+        public CompletableFuture<Boolean> tryLockAsync(long waitTime, long leaseTime, TimeUnit unit, long ownerToken) {
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> acquiring = lock.tryLockAsync(waitTime, leaseTime, unit, ownerToken);
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            acquiring.whenComplete((locked, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                boolean held = Boolean.TRUE.equals(locked);
+                if (result.complete(held)) {
+                    acquired(held, start, tokenOwner(ownerToken), leaseNanos(leaseTime, unit));
+                    return;
+                }
+                acquired(false, start, tokenOwner(ownerToken), -1L);
+                if (held) {
+                    lock.unlockAsync(ownerToken);
+                }
+            });
+            result.whenComplete((locked, error) -> acquiring.cancel(false));
+            return result;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> unlockAsync(long ownerToken) {
+            Long acquiredAt = popAcquireTime(tokenOwner(ownerToken));
+            return lock.unlockAsync(ownerToken).whenComplete((released, error) -> {
+                if (error != null) {
+                    stats.recordFailedUnlock();
+                } else {
+                    released(Boolean.TRUE.equals(released), acquiredAt);
+                }
+            });
+        }
+
+        @Override
+        public boolean isLocked() {
+            return lock.isLocked();
+        }
+
+        @Override
+        public boolean isHeldByCurrentThread() {
+            return lock.isHeldByCurrentThread();
+        }
+
+        @Override
+        public String getLockName() {
+            return lock.getLockName();
+        }
+
+        private boolean acquired(boolean acquired, long start, String owner, long leaseNanos) {
+            long now = System.nanoTime();
+            if (!acquired) {
+                stats.recordTimeout(now - start);
+                return false;
+            }
+            stats.recordAcquired(now - start);
+            acquireTimes.compute(holdKey + "#" + owner, (k, times) -> {
+                ArrayDeque<Acquisition> acquisitions = times != null ? times : new ArrayDeque<>();
+                acquisitions.addLast(new Acquisition(now, leaseNanos));
+                return acquisitions;
+            });
+            if (acquisitionsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+                acquisitionsSinceSweep.set(0);
+                sweepExpired();
+            }
+            return true;
+        }
+
+        private long leaseNanos(long leaseTime, TimeUnit unit) {
+            return leaseTime > 0 ? unit.toNanos(leaseTime) : -1L;
+        }
+
+        private void released(boolean released, Long acquiredAt) {
+            if (!released) {
+                stats.recordFailedUnlock();
+            } else if (acquiredAt != null) {
+                stats.recordHold(System.nanoTime() - acquiredAt);
+            }
+        }
+
+        private Long popAcquireTime(String owner) {
+            Long[] acquiredAt = new Long[1];
+            acquireTimes.computeIfPresent(holdKey + "#" + owner, (k, times) -> {
+                Acquisition acquisition = times.pollLast();
+                acquiredAt[0] = acquisition != null ? acquisition.acquiredAt : null;
+                return times.isEmpty() ? null : times;
+            });
+            return acquiredAt[0];
+        }
+
+        private String threadOwner() {
+            return String.valueOf(Thread.currentThread().threadId());
+        }
+
+        private String tokenOwner(long ownerToken) {
+            return "~" + ownerToken;
+        }
+    }
+
+    private final class ProfiledFencedLock extends ProfiledLock implements FencedLock {
+
+        private final FencedLock lock;
+
+        private ProfiledFencedLock(FencedLock lock, LockStats stats, String holdKey) {
+            super(lock, stats, holdKey);
+            this.lock = lock;
+        }
+
+        @Override
+        public long getFencingToken() {
+            return lock.getFencingToken();
+        }
+
+        @Override
+        public long getFencingToken(long ownerToken) {
+            return lock.getFencingToken(ownerToken);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.im.common.cache.read;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 群聊已读位置服务接口。
+ * 维护每个用户在每个群聊中已读的最大消息 ID，并基于雪花算法消息 ID 计算未读数量。
+ * 消息 ID 由雪花算法生成，按时间趋势递增，因此已读位置之后的消息即为未读消息。
+ */
+public interface GroupReadPositionService {
+
+    /**
+     * 上报已读回执。
+     * 已读位置只增不减，小于当前已读位置的回执会被忽略。
+     *
+     * @param groupId   群聊 ID
+     * @param userId    用户 ID
+     * @param messageId 已读的消息 ID
+     * @throws IllegalArgumentException 如果 groupId 或 userId 为 null
+     */
+    void markRead(Long groupId, Long userId, long messageId);
+
+    /**
+     * 查询用户在群聊中的已读位置。
+     *
+     * @param groupId 群聊 ID
+     * @param userId  用户 ID
+     * @return 已读的最大消息 ID，从未上报过已读时返回 0
+     */
+    long getReadPosition(Long groupId, Long userId);
+
+    /**
+     * 批量查询群聊中多个用户的已读位置，在一次 Redis 往返中完成。
+     *
+     * @param groupId 群聊 ID
+     * @param userIds 用户 ID 集合
+     * @return 用户 ID 到已读位置的映射，从未上报过已读的用户对应 0
+     */
+    Map<Long, Long> getReadPositions(Long groupId, Collection<Long> userIds);
+
+    /**
+     * 计算用户在群聊中的未读消息数量。
+     *
+     * @param groupId    群聊 ID
+     * @param userId     用户 ID
+     * @param messageIds 群聊消息 ID 数组，按升序排列
+     * @return 消息 ID 大于已读位置的消息数量
+     */
+    int countUnread(Long groupId, Long userId, long[] messageIds);
+
+    /**
+     * 判断用户在群聊中是否存在未读消息。
+     *
+     * @param groupId         群聊 ID
+     * @param userId          用户 ID
+     * @param latestMessageId 群聊最新一条消息的 ID
+     * @return 存在未读消息返回 true，否则返回 false
+     */
+    boolean hasUnread(Long groupId, Long userId, long latestMessageId);
+
+    /**
+     * 立即将本地累积的已读位置刷新到分布式缓存。
+     */
+    void flush();
+}
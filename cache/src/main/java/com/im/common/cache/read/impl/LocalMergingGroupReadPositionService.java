@@ -0,0 +1,190 @@
+package com.im.common.cache.read.impl;
+
+import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.read.GroupReadPositionService;
+import com.im.common.domain.constant.IMConstants;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 本地合并已读位置的群聊已读位置服务实现。
+ * 已读回执先在本地按“取最大值”合并，再定时通过“大于当前值才写入”的原子操作批量刷新到分布式缓存，
+ * 同一用户在同一群聊中的多次已读回执在一个刷新周期内只产生一次写入。
+ * 已读位置存储在 im:readed:group:position:{groupId}:{userId} 键中。
+ * 配置项：cache.distributed.type 存在时启用此实现。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.distributed.type")
+public class LocalMergingGroupReadPositionService implements GroupReadPositionService, InitializingBean, DisposableBean {
+
+    @Autowired
+    private DistributedCache distributedCache;
+
+    /**
+     * 本地累积、尚未刷新的已读位置。
+     */
+    private final ConcurrentHashMap<String, Long> pendingPositions = new ConcurrentHashMap<>();
+
+    /**
+     * 保证同一时刻只有一个刷新在执行。
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService flusher;
+
+    private final long flushIntervalMillis;
+
+    public LocalMergingGroupReadPositionService(
+            @Value("${cache.read-position.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "group-read-position-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 依赖注入完成后再启动定时刷新，避免刷新线程看到尚未注入的分布式缓存。
+     */
+    @Override
+    public void afterPropertiesSet() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void markRead(Long groupId, Long userId, long messageId) {
+        pendingPositions.merge(positionKey(groupId, userId), messageId, Math::max);
+    }
+
+    @Override
+    public long getReadPosition(Long groupId, Long userId) {
+        String key = positionKey(groupId, userId);
+        Long stored = distributedCache.get(key, Long.class);
+        Long pending = pendingPositions.get(key);
+        return Math.max(stored != null ? stored : 0L, pending != null ? pending : 0L);
+    }
+
+    @Override
+    public Map<Long, Long> getReadPositions(Long groupId, Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> ids = new ArrayList<>(userIds.size());
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (userId != null) {
+                ids.add(userId);
+                keys.add(positionKey(groupId, userId));
+            }
+        }
+
+        List<Long> stored = distributedCache.batchGetList(keys, Long.class);
+        Map<Long, Long> result = new HashMap<>((int) (ids.size() / 0.75f) + 1);
+        for (int i = 0; i < ids.size(); i++) {
+            Long position = i < stored.size() ? stored.get(i) : null;
+            Long pending = pendingPositions.get(keys.get(i));
+            result.put(ids.get(i), Math.max(position != null ? position : 0L, pending != null ? pending : 0L));
+        }
+        return result;
+    }
+
+    @Override
+    public int countUnread(Long groupId, Long userId, long[] messageIds) {
+        if (messageIds == null || messageIds.length == 0) {
+            return 0;
+        }
+        long readPosition = getReadPosition(groupId, userId);
+
+        // 二分查找第一个大于已读位置的消息下标
+        int low = 0;
+        int high = messageIds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (messageIds[mid] <= readPosition) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return messageIds.length - low;
+    }
+
+    @Override
+    public boolean hasUnread(Long groupId, Long userId, long latestMessageId) {
+        return latestMessageId > getReadPosition(groupId, userId);
+    }
+
+    @Override
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pendingPositions.isEmpty()) {
+                return;
+            }
+            Map<String, Long> snapshot = new HashMap<>(pendingPositions);
+            distributedCache.batchSetIfGreater(snapshot);
+
+            // 只移除刷新期间未再增长的已读位置
+            for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+                pendingPositions.remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 容器关闭时停止定时刷新并刷新剩余的已读位置。
+     */
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 记录异常日志，未刷新的已读位置保留到下次重试
+            System.err.println("Failed to flush group read positions, pending: " + pendingPositions.size() + ", error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 构造已读位置键：im:readed:group:position:{groupId}:{userId}
+     */
+    private String positionKey(Long groupId, Long userId) {
+        if (groupId == null) {
+            throw new IllegalArgumentException("Group id cannot be null");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("User id cannot be null");
+        }
+        return IMConstants.IM_GROUP_READED_POSITION + IMConstants.REDIS_KEY_SPLIT + groupId
+                + IMConstants.REDIS_KEY_SPLIT + userId;
+    }
+}
@@ -0,0 +1,66 @@
+package com.im.common.cache.route;
+
+import com.im.common.domain.enums.TerminalType;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 用户路由表接口。
+ * 维护（用户 ID，终端类型）到其所连接的 IM 服务节点 ID 的映射，
+ * 用于消息投递时定位接收者所在的 IM 服务节点。
+ */
+public interface UserRouteTable {
+
+    /**
+     * 注册用户终端的路由信息。
+     * 用户登录（LOGIN）成功后调用，路由的有效期为在线状态过期时间。
+     *
+     * @param userId   用户 ID
+     * @param terminal 终端类型
+     * @param serverId 用户所连接的 IM 服务节点 ID
+     * @throws IllegalArgumentException 如果任一参数为 null
+     */
+    void register(Long userId, TerminalType terminal, Long serverId);
+
+    /**
+     * 续期用户终端的路由信息。
+     * 收到心跳时调用，将路由的有效期重置为在线状态过期时间。
+     *
+     * @param userId   用户 ID
+     * @param terminal 终端类型
+     * @return 续期是否成功，路由不存在时返回 false
+     */
+    boolean renew(Long userId, TerminalType terminal);
+
+    /**
+     * 移除用户终端的路由信息。
+     * 用户被强制下线（FORCE_LOGOUT）或断开连接时调用。
+     * 仅当路由仍指向 serverId 时移除，避免删除该用户在其他节点上新建立连接后注册的路由。
+     *
+     * @param userId   用户 ID
+     * @param terminal 终端类型
+     * @param serverId 断开连接的 IM 服务节点 ID
+     * @return 移除是否成功，路由不存在或已指向其他节点时返回 false
+     * @throws IllegalArgumentException 如果任一参数为 null
+     */
+    boolean remove(Long userId, TerminalType terminal, Long serverId);
+
+    /**
+     * 查询用户终端所连接的 IM 服务节点 ID。
+     *
+     * @param userId   用户 ID
+     * @param terminal 终端类型
+     * @return IM 服务节点 ID，用户该终端不在线时返回 null
+     */
+    Long resolve(Long userId, TerminalType terminal);
+
+    /**
+     * 批量查询用户所有终端所连接的 IM 服务节点 ID。
+     * 未命中本地缓存的路由在一次 Redis 往返中批量获取，适用于群聊消息投递。
+     *
+     * @param userIds 用户 ID 集合
+     * @return 用户 ID 到（终端类型，IM 服务节点 ID）映射的映射，不在线的用户不包含在返回映射中
+     */
+    Map<Long, Map<TerminalType, Long>> resolveAll(Collection<Long> userIds);
+}
@@ -0,0 +1,157 @@
+package com.im.common.cache.route.impl;
+
+import com.google.common.cache.Cache;
+import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.local.factory.GuavaCacheFactory;
+import com.im.common.cache.route.UserRouteTable;
+import com.im.common.domain.constant.IMConstants;
+import com.im.common.domain.enums.TerminalType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于分布式缓存的用户路由表实现，前置一层短时本地缓存。
+ * 路由存储在 im:user:server_id:{userId}:{terminalCode} 键中，值为 IM 服务节点 ID。
+ * 路由只能由其所在节点移除（比较节点 ID 后删除）。本节点的注册与移除会同步失效本地缓存，其他节点的变更最多在本地缓存过期时间内不可见。
+ * 配置项：cache.distributed.type 存在时启用此实现。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.distributed.type")
+public class CachedUserRouteTable implements UserRouteTable {
+
+    /**
+     * 本地缓存中表示“不在线”的占位值，用于缓存未命中的查询结果。
+     */
+    private static final Long OFFLINE = -1L;
+
+    /**
+     * 路由在分布式缓存中的有效期。
+     */
+    private static final Duration ROUTE_TTL = Duration.ofSeconds(IMConstants.ONLINE_TIMEOUT_SECONDS);
+
+    private static final TerminalType[] TERMINALS = TerminalType.values();
+
+    @Autowired
+    private DistributedCache distributedCache;
+
+    /**
+     * 路由键到 IM 服务节点 ID 的本地缓存。
+     */
+    private final Cache<String, Long> localRoutes;
+
+    public CachedUserRouteTable(@Value("${cache.route.local-ttl-millis:2000}") long localTtlMillis,
+                                @Value("${cache.route.local-maximum-size:100000}") long localMaximumSize) {
+        this.localRoutes = GuavaCacheFactory.createWithMaxSizeAndExpireAfterWrite(
+                localMaximumSize, Duration.ofMillis(localTtlMillis));
+    }
+
+    @Override
+    public void register(Long userId, TerminalType terminal, Long serverId) {
+        if (serverId == null) {
+            throw new IllegalArgumentException("Server id cannot be null");
+        }
+        String key = routeKey(userId, terminal);
+        distributedCache.set(key, serverId, ROUTE_TTL);
+        localRoutes.put(key, serverId);
+    }
+
+    @Override
+    public boolean renew(Long userId, TerminalType terminal) {
+        return distributedCache.expire(routeKey(userId, terminal), ROUTE_TTL);
+    }
+
+    @Override
+    public boolean remove(Long userId, TerminalType terminal, Long serverId) {
+        if (serverId == null) {
+            throw new IllegalArgumentException("Server id cannot be null");
+        }
+        String key = routeKey(userId, terminal);
+        localRoutes.invalidate(key);
+        return distributedCache.deleteIfEquals(key, serverId);
+    }
+
+    @Override
+    public Long resolve(Long userId, TerminalType terminal) {
+        String key = routeKey(userId, terminal);
+        Long serverId = localRoutes.getIfPresent(key);
+        if (serverId == null) {
+            serverId = distributedCache.get(key, Long.class);
+            localRoutes.put(key, serverId != null ? serverId : OFFLINE);
+        }
+        return OFFLINE.equals(serverId) ? null : serverId;
+    }
+
+    @Override
+    public Map<Long, Map<TerminalType, Long>> resolveAll(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, Map<TerminalType, Long>> result = new HashMap<>((int) (userIds.size() / 0.75f) + 1);
+        List<String> missKeys = new ArrayList<>();
+        List<Long> missUserIds = new ArrayList<>();
+        List<TerminalType> missTerminals = new ArrayList<>();
+
+        // 先查本地缓存，收集未命中的路由键
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            for (TerminalType terminal : TERMINALS) {
+                String key = routeKey(userId, terminal);
+                Long serverId = localRoutes.getIfPresent(key);
+                if (serverId == null) {
+                    missKeys.add(key);
+                    missUserIds.add(userId);
+                    missTerminals.add(terminal);
+                } else if (!OFFLINE.equals(serverId)) {
+                    putRoute(result, userId, terminal, serverId);
+                }
+            }
+        }
+
+        if (missKeys.isEmpty()) {
+            return result;
+        }
+
+        // 未命中的路由通过一次 MGET 批量获取，并回填本地缓存
+        List<Long> serverIds = distributedCache.batchGetList(missKeys, Long.class);
+        for (int i = 0; i < missKeys.size(); i++) {
+            Long serverId = i < serverIds.size() ? serverIds.get(i) : null;
+            localRoutes.put(missKeys.get(i), serverId != null ? serverId : OFFLINE);
+            if (serverId != null) {
+                putRoute(result, missUserIds.get(i), missTerminals.get(i), serverId);
+            }
+        }
+        return result;
+    }
+
+    private void putRoute(Map<Long, Map<TerminalType, Long>> result, Long userId, TerminalType terminal, Long serverId) {
+        result.computeIfAbsent(userId, k -> new EnumMap<>(TerminalType.class)).put(terminal, serverId);
+    }
+
+    /**
+     * 构造路由键：im:user:server_id:{userId}:{terminalCode}
+     */
+    private String routeKey(Long userId, TerminalType terminal) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User id cannot be null");
+        }
+        if (terminal == null) {
+            throw new IllegalArgumentException("Terminal type cannot be null");
+        }
+        return IMConstants.IM_USER_SERVER_ID + IMConstants.REDIS_KEY_SPLIT + userId
+                + IMConstants.REDIS_KEY_SPLIT + terminal.getCode();
+    }
+}
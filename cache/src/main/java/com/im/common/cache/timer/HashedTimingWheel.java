@@ -0,0 +1,526 @@
+package com.im.common.cache.timer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 以 long 为键的哈希时间轮，适用于会话空闲超时、心跳超时等大量键、超时时间频繁推后的场景。
+ *
+ * <p>每个键对应一个定时节点，节点数据保存在并行的基本类型数组中，键到节点的映射是开放寻址的 long 哈希表，
+ * 不为每个键分配对象。调度、取消与推后都是 O(1)：推后超时时间（例如收到心跳）只更新节点的截止时间，
+ * 不移动节点；节点所在的槽位到期时，若截止时间已被推后，再把节点移到新截止时间对应的槽位。
+ * 因此心跳频繁的会话在一个超时周期内最多被移动一次。</p>
+ *
+ * <p>一个后台线程按刻度推进时间轮，到期的键按批回调 {@link ExpirationHandler}，回调在推进线程中执行且不持有锁，
+ * 处理耗时较长时应转交其他线程。所有操作由一把锁保护，持锁时间与单次操作的 O(1) 开销相当。</p>
+ *
+ * <pre>
+ * HashedTimingWheel sessionTimeouts = new HashedTimingWheel(Duration.ofSeconds(1), 1024, 1000,
+ *         expiredUserIds -&gt; offlineService.markOffline(expiredUserIds));
+ * // 上线或收到心跳时
+ * sessionTimeouts.schedule(userId, TimeUnit.SECONDS.toMillis(IMConstants.ONLINE_TIMEOUT_SECONDS));
+ * // 主动下线时
+ * sessionTimeouts.cancel(userId);
+ * </pre>
+ */
+public class HashedTimingWheel implements AutoCloseable {
+
+    /**
+     * 到期回调。
+     */
+    @FunctionalInterface
+    public interface ExpirationHandler {
+
+        /**
+         * 一批键已到期，这些键已从时间轮中移除。
+         *
+         * @param keys 到期的键
+         */
+        void onExpired(long[] keys);
+    }
+
+    private static final int NIL = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final long tickNanos;
+
+    private final int wheelMask;
+
+    /**
+     * 每个槽位的节点链表头。
+     */
+    private final int[] bucketHeads;
+
+    private final int maxBatchSize;
+
+    private final ExpirationHandler handler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long startNanos = System.nanoTime();
+
+    private final Thread ticker;
+
+    private volatile boolean closed;
+
+    /**
+     * 下一个待处理的刻度。
+     */
+    private long nextTick;
+
+    // ---- 节点数组，下标即节点编号 ----
+
+    private long[] nodeKeys;
+
+    /**
+     * 节点的截止刻度，推后超时时间时只更新该值。
+     */
+    private long[] deadlineTicks;
+
+    /**
+     * 节点当前所在槽位对应的刻度，不晚于截止刻度。
+     */
+    private long[] scheduledTicks;
+
+    private int[] prevNodes;
+
+    private int[] nextNodes;
+
+    /**
+     * 空闲节点链表头，空闲节点通过 nextNodes 相连。
+     */
+    private int freeHead = NIL;
+
+    /**
+     * 已使用过的最大节点编号 + 1。
+     */
+    private int highWaterMark;
+
+    private int size;
+
+    // ---- 键到节点编号的开放寻址哈希表 ----
+
+    private long[] indexKeys;
+
+    /**
+     * 键对应的节点编号，NIL 表示空槽位。
+     */
+    private int[] indexNodes;
+
+    private int indexMask;
+
+    /**
+     * 构造函数。
+     *
+     * @param tickDuration 刻度时长，即超时精度
+     * @param wheelSize    槽位数，向上取整为 2 的幂；槽位数乘以刻度时长不小于常用超时时间时，节点无需多轮等待
+     * @param maxBatchSize 单次回调的最大键数量
+     * @param handler      到期回调
+     * @throws IllegalArgumentException 如果参数不合法
+     */
+    public HashedTimingWheel(Duration tickDuration, int wheelSize, int maxBatchSize, ExpirationHandler handler) {
+        if (tickDuration == null || tickDuration.toNanos() <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be in (0, 2^30]");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Expiration handler cannot be null");
+        }
+        this.tickNanos = tickDuration.toNanos();
+        int buckets = Integer.highestOneBit(wheelSize);
+        if (buckets < wheelSize) {
+            buckets <<= 1;
+        }
+        this.wheelMask = buckets - 1;
+        this.bucketHeads = new int[buckets];
+        Arrays.fill(bucketHeads, NIL);
+        this.maxBatchSize = maxBatchSize;
+        this.handler = handler;
+
+        allocateNodes(INITIAL_CAPACITY);
+        allocateIndex(INITIAL_CAPACITY * 2);
+
+        this.ticker = new Thread(this::runTicker, "hashed-timing-wheel-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * 调度或重新调度键的超时：键不存在时新建，存在时把截止时间改为当前时间加 delayMillis。
+     *
+     * @param key         键
+     * @param delayMillis 超时时间（毫秒）
+     * @throws IllegalStateException 如果时间轮已关闭
+     */
+    public void schedule(long key, long delayMillis) {
+        if (closed) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long deadlineNanos = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delayMillis));
+        // 向上取整，保证不早于截止时间触发
+        long deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+
+        lock.lock();
+        try {
+            long tick = Math.max(deadlineTick, nextTick);
+            int node = find(key);
+            if (node == NIL) {
+                node = allocateNode(key);
+                deadlineTicks[node] = tick;
+                scheduledTicks[node] = tick;
+                link(node);
+                insertIndex(key, node);
+                size++;
+                return;
+            }
+
+            deadlineTicks[node] = tick;
+            if (tick < scheduledTicks[node]) {
+                // 截止时间提前时必须移动节点；推后时只更新截止时间，到期检查时再移动
+                unlink(node);
+                scheduledTicks[node] = tick;
+                link(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消键的超时。
+     *
+     * @param key 键
+     * @return 若键存在返回 true
+     */
+    public boolean cancel(long key) {
+        lock.lock();
+        try {
+            int node = find(key);
+            if (node == NIL) {
+                return false;
+            }
+            unlink(node);
+            removeIndex(key);
+            freeNode(node);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 判断键是否已调度且尚未到期。
+     *
+     * @param key 键
+     * @return 若键存在返回 true
+     */
+    public boolean contains(long key) {
+        lock.lock();
+        try {
+            return find(key) != NIL;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取键距离到期的剩余时间。
+     *
+     * @param key 键
+     * @return 剩余毫秒数，键不存在时返回 -1
+     */
+    public long remainingMillis(long key) {
+        lock.lock();
+        try {
+            int node = find(key);
+            if (node == NIL) {
+                return -1L;
+            }
+            long remainingNanos = deadlineTicks[node] * tickNanos - (System.nanoTime() - startNanos);
+            return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取已调度的键数量。
+     *
+     * @return 键数量
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止推进线程，未到期的键不再回调。
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ticker.interrupt();
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runTicker() {
+        while (!closed) {
+            long elapsed = System.nanoTime() - startNanos;
+            long sleepNanos;
+            lock.lock();
+            try {
+                sleepNanos = nextTick * tickNanos - elapsed;
+            } finally {
+                lock.unlock();
+            }
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (closed) {
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            long[] expired = advance(elapsed / tickNanos);
+            for (int from = 0; from < expired.length; from += maxBatchSize) {
+                long[] batch = from == 0 && expired.length <= maxBatchSize
+                        ? expired
+                        : Arrays.copyOfRange(expired, from, Math.min(expired.length, from + maxBatchSize));
+                try {
+                    handler.onExpired(batch);
+                } catch (Exception e) {
+                    System.err.println("Failed to handle expired keys, count: " + batch.length + ", error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理直到 targetTick（含）的所有刻度，返回到期的键。
+     */
+    private long[] advance(long targetTick) {
+        LongBuffer expired = new LongBuffer();
+        lock.lock();
+        try {
+            if (targetTick - nextTick > wheelMask) {
+                // 落后超过一圈时，每个槽位处理一次即可
+                for (int bucket = 0; bucket <= wheelMask; bucket++) {
+                    processBucket(bucket, targetTick, expired);
+                }
+            } else {
+                for (long tick = nextTick; tick <= targetTick; tick++) {
+                    processBucket((int) (tick & wheelMask), tick, expired);
+                }
+            }
+            nextTick = targetTick + 1;
+        } finally {
+            lock.unlock();
+        }
+        return expired.toArray();
+    }
+
+    /**
+     * 处理一个槽位：截止刻度已到的节点到期，截止时间被推后的节点移到新槽位，属于后续轮次的节点保留。
+     */
+    private void processBucket(int bucket, long currentTick, LongBuffer expired) {
+        int node = bucketHeads[bucket];
+        bucketHeads[bucket] = NIL;
+        while (node != NIL) {
+            int next = nextNodes[node];
+            if (deadlineTicks[node] <= currentTick) {
+                long key = nodeKeys[node];
+                expired.add(key);
+                removeIndex(key);
+                freeNode(node);
+                size--;
+            } else {
+                if (scheduledTicks[node] <= currentTick) {
+                    scheduledTicks[node] = deadlineTicks[node];
+                }
+                link(node);
+            }
+            node = next;
+        }
+    }
+
+    // ---- 槽位链表 ----
+
+    private void link(int node) {
+        int bucket = (int) (scheduledTicks[node] & wheelMask);
+        int head = bucketHeads[bucket];
+        prevNodes[node] = NIL;
+        nextNodes[node] = head;
+        if (head != NIL) {
+            prevNodes[head] = node;
+        }
+        bucketHeads[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        int prev = prevNodes[node];
+        int next = nextNodes[node];
+        if (prev != NIL) {
+            nextNodes[prev] = next;
+        } else {
+            bucketHeads[(int) (scheduledTicks[node] & wheelMask)] = next;
+        }
+        if (next != NIL) {
+            prevNodes[next] = prev;
+        }
+        prevNodes[node] = NIL;
+        nextNodes[node] = NIL;
+    }
+
+    // ---- 节点分配 ----
+
+    private void allocateNodes(int capacity) {
+        nodeKeys = nodeKeys == null ? new long[capacity] : Arrays.copyOf(nodeKeys, capacity);
+        deadlineTicks = deadlineTicks == null ? new long[capacity] : Arrays.copyOf(deadlineTicks, capacity);
+        scheduledTicks = scheduledTicks == null ? new long[capacity] : Arrays.copyOf(scheduledTicks, capacity);
+        prevNodes = prevNodes == null ? new int[capacity] : Arrays.copyOf(prevNodes, capacity);
+        nextNodes = nextNodes == null ? new int[capacity] : Arrays.copyOf(nextNodes, capacity);
+    }
+
+    private int allocateNode(long key) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = nextNodes[node];
+        } else {
+            if (highWaterMark == nodeKeys.length) {
+                allocateNodes(nodeKeys.length << 1);
+            }
+            node = highWaterMark++;
+        }
+        nodeKeys[node] = key;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        prevNodes[node] = NIL;
+        nextNodes[node] = freeHead;
+        freeHead = node;
+    }
+
+    // ---- 键索引：线性探测 + 回移删除 ----
+
+    private void allocateIndex(int capacity) {
+        indexKeys = new long[capacity];
+        indexNodes = new int[capacity];
+        Arrays.fill(indexNodes, NIL);
+        indexMask = capacity - 1;
+    }
+
+    private int find(long key) {
+        int slot = slot(key, indexMask);
+        while (indexNodes[slot] != NIL) {
+            if (indexKeys[slot] == key) {
+                return indexNodes[slot];
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return NIL;
+    }
+
+    private void insertIndex(long key, int node) {
+        if ((size + 1) * 2 > indexMask + 1) {
+            long[] oldKeys = indexKeys;
+            int[] oldNodes = indexNodes;
+            allocateIndex(oldKeys.length << 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldNodes[i] != NIL) {
+                    putIndex(oldKeys[i], oldNodes[i]);
+                }
+            }
+        }
+        putIndex(key, node);
+    }
+
+    private void putIndex(long key, int node) {
+        int slot = slot(key, indexMask);
+        while (indexNodes[slot] != NIL) {
+            slot = (slot + 1) & indexMask;
+        }
+        indexKeys[slot] = key;
+        indexNodes[slot] = node;
+    }
+
+    private void removeIndex(long key) {
+        int hole = slot(key, indexMask);
+        while (indexKeys[hole] != key) {
+            if (indexNodes[hole] == NIL) {
+                return;
+            }
+            hole = (hole + 1) & indexMask;
+        }
+        if (indexNodes[hole] == NIL) {
+            return;
+        }
+        int next = (hole + 1) & indexMask;
+        while (indexNodes[next] != NIL) {
+            int home = slot(indexKeys[next], indexMask);
+            // 条目的初始槽位不在 (hole, next] 区间内时，才能移动到空洞处
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                indexKeys[hole] = indexKeys[next];
+                indexNodes[hole] = indexNodes[next];
+                hole = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        indexNodes[hole] = NIL;
+    }
+
+    /**
+     * MurmurHash3 的 64 位混淆函数。
+     */
+    private static int slot(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * 可增长的 long 数组，用于收集到期的键。
+     */
+    private static final class LongBuffer {
+
+        private long[] values = new long[16];
+
+        private int count;
+
+        private void add(long value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count << 1);
+            }
+            values[count++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.im.common.cache.warm;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动预热配置，例如：
+ * <pre>
+ * cache.warm.enabled=true
+ * cache.warm.time-budget=30s
+ * cache.warm.max-keys-per-second=20000
+ * cache.warm.rules[0].prefix=im:cache:friend
+ * cache.warm.rules[0].region=im:cache:friend
+ * cache.warm.rules[0].value-type=java.lang.Boolean
+ * cache.warm.rules[1].prefix=im:cache:group_member_ids
+ * cache.warm.rules[1].region=im:cache:group_member_ids
+ * cache.warm.rules[1].value-type=java.util.ArrayList
+ * cache.warm.rules[1].local-ttl=5m
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "cache.warm")
+public class CacheWarmProperties {
+
+    /**
+     * 预热的总时间预算，超时后停止所有预热任务。
+     */
+    private Duration timeBudget = Duration.ofSeconds(30);
+
+    /**
+     * 并行执行的预热任务数。
+     */
+    private int parallelism = 4;
+
+    /**
+     * 每批扫描与 MGET 的键数量。
+     */
+    private int batchSize = 500;
+
+    /**
+     * 所有预热任务合计每秒最多读取的键数量，用于避免影响线上流量。
+     */
+    private double maxKeysPerSecond = 20000;
+
+    /**
+     * 预热规则。
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public double getMaxKeysPerSecond() {
+        return maxKeysPerSecond;
+    }
+
+    public void setMaxKeysPerSecond(double maxKeysPerSecond) {
+        this.maxKeysPerSecond = maxKeysPerSecond;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * 单个键前缀的预热规则。
+     */
+    public static class Rule {
+
+        /**
+         * 键前缀，扫描匹配 prefix* 的所有键。
+         */
+        private String prefix;
+
+        /**
+         * 写入的本地缓存区域名称，为空时写入默认的本地缓存。
+         */
+        private String region;
+
+        /**
+         * 值的类型，默认为 String。
+         */
+        private Class<?> valueType = String.class;
+
+        /**
+         * 写入本地缓存时的过期时间，为 null 时使用本地缓存的默认策略。
+         */
+        private Duration localTtl;
+
+        /**
+         * 该前缀最多预热的键数量，不大于 0 时不限制。
+         */
+        private long maxKeys;
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public Class<?> getValueType() {
+            return valueType;
+        }
+
+        public void setValueType(Class<?> valueType) {
+            this.valueType = valueType;
+        }
+
+        public Duration getLocalTtl() {
+            return localTtl;
+        }
+
+        public void setLocalTtl(Duration localTtl) {
+            this.localTtl = localTtl;
+        }
+
+        public long getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(long maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.im.common.cache.warm;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.im.common.cache.distribute.DistributedCache;
+import com.im.common.cache.local.LocalCache;
+import com.im.common.cache.local.region.CacheRegionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动时从分布式缓存预热本地缓存。
+ *
+ * <p>在应用就绪之前（ApplicationRunner 阶段）按 {@link CacheWarmProperties} 中的规则执行：
+ * 每条规则按前缀以游标方式扫描分布式缓存，每批键通过一次 MGET 读取后写入对应的本地缓存区域；
+ * 多条规则以及同一规则的各个扫描分区（如 Redis Cluster 的每个主节点）并行执行。所有规则共享一个限速器，限制每秒读取的键数量，避免影响线上流量；
+ * 超过时间预算后停止预热，已加载的数据保留。预热失败不影响应用启动。</p>
+ *
+ * 使用 @ConditionalOnProperty 注解，根据配置决定是否加载该类。
+ * 配置项：cache.warm.enabled=true 时启用。
+ */
+@Component
+@ConditionalOnProperty(name = "cache.warm.enabled", havingValue = "true")
+public class CacheWarmer implements ApplicationRunner {
+
+    private final DistributedCache distributedCache;
+
+    private final CacheWarmProperties properties;
+
+    private final ObjectProvider<LocalCache> localCacheProvider;
+
+    private final ObjectProvider<CacheRegionManager> regionManagerProvider;
+
+    /**
+     * 最近一次预热写入本地缓存的条目数，每批写入后累加。
+     */
+    private final AtomicLong warmedEntries = new AtomicLong();
+
+    /**
+     * 构造函数。
+     *
+     * @param distributedCache      分布式缓存
+     * @param properties            预热配置
+     * @param localCacheProvider    默认的本地缓存
+     * @param regionManagerProvider 本地缓存区域管理器
+     */
+    public CacheWarmer(DistributedCache distributedCache,
+                       CacheWarmProperties properties,
+                       ObjectProvider<LocalCache> localCacheProvider,
+                       ObjectProvider<CacheRegionManager> regionManagerProvider) {
+        this.distributedCache = distributedCache;
+        this.properties = properties;
+        this.localCacheProvider = localCacheProvider;
+        this.regionManagerProvider = regionManagerProvider;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warm();
+    }
+
+    /**
+     * 执行预热，在时间预算内返回。
+     *
+     * @return 写入本地缓存的条目数
+     */
+    public long warm() {
+        List<CacheWarmProperties.Rule> rules = properties.getRules();
+        if (rules == null || rules.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + properties.getTimeBudget().toNanos();
+        RateLimiter rateLimiter = RateLimiter.create(properties.getMaxKeysPerSecond());
+        warmedEntries.set(0);
+        int partitions = Math.max(1, distributedCache.scanPartitions());
+        AtomicInteger threadSequence = new AtomicInteger();
+        int tasks = rules.size() * partitions;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(properties.getParallelism(), tasks)), r -> {
+            Thread thread = new Thread(r, "cache-warmer-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (CacheWarmProperties.Rule rule : rules) {
+                AtomicLong ruleLoaded = new AtomicLong();
+                for (int partition = 0; partition < partitions; partition++) {
+                    int scanPartition = partition;
+                    futures.add(executor.submit(() -> warmPartition(rule, scanPartition, rateLimiter, deadline, ruleLoaded)));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    System.err.println("Failed to warm local cache, error: " + e.getCause().getMessage());
+                } catch (TimeoutException e) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return warmedEntries.get();
+    }
+
+    /**
+     * 获取最近一次预热写入本地缓存的条目数，包括超出时间预算后仍在写入的批次。
+     *
+     * @return 写入的条目数
+     */
+    public long getWarmedEntries() {
+        return warmedEntries.get();
+    }
+
+    /**
+     * 预热一条规则在一个扫描分区中的键。同一规则的各个分区共享 ruleLoaded，用于限制规则的最大键数量；
+     * 每批写入后立即计入 warmedEntries，超时未完成的分区已加载的条目也会被统计。
+     */
+    private void warmPartition(CacheWarmProperties.Rule rule, int partition, RateLimiter rateLimiter, long deadline,
+                               AtomicLong ruleLoaded) {
+        if (!StringUtils.hasText(rule.getPrefix())) {
+            throw new IllegalArgumentException("Warm rule prefix cannot be null or empty");
+        }
+        LocalCache target = StringUtils.hasText(rule.getRegion())
+                ? regionManagerProvider.getObject().getRegion(rule.getRegion())
+                : localCacheProvider.getObject();
+        Class<?> valueType = rule.getValueType() != null ? rule.getValueType() : String.class;
+
+        distributedCache.scan(partition, rule.getPrefix() + "*", properties.getBatchSize(), keys -> {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            // 在剩余时间内拿不到配额时停止，而不是超出时间预算
+            if (!rateLimiter.tryAcquire(keys.size(), remaining, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+
+            List<?> values = distributedCache.batchGetList(keys, valueType);
+            long batchLoaded = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                Object value = values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                if (rule.getLocalTtl() != null) {
+                    target.put(keys.get(i), value, rule.getLocalTtl());
+                } else {
+                    target.put(keys.get(i), value);
+                }
+                batchLoaded++;
+            }
+            warmedEntries.addAndGet(batchLoaded);
+            return rule.getMaxKeys() <= 0 || ruleLoaded.addAndGet(batchLoaded) < rule.getMaxKeys();
+        });
+    }
+}
@@ -1,5 +1,8 @@
 package com.im.common.mq;
 import com.im.common.domain.model.RocketMQData;
+import org.apache.rocketmq.client.producer.SendResult;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 通用消息发送接口。
@@ -12,7 +15,7 @@ public interface MessageSender<T> {
 
     /**
      * 发送普通消息。
-     * 异步发送消息到 RocketMQ，不保证消息一定被消费。
+     * 同步发送消息到 RocketMQ，调用线程等待 Broker 响应后返回，不保证消息一定被消费。
      *
      * @param rocketMQData 包含 Topic 和消息数据的 RocketMQData 对象
      * @return 发送是否成功，成功返回 true，失败返回 false
@@ -20,6 +23,18 @@ public interface MessageSender<T> {
      */
     boolean send(RocketMQData<T> rocketMQData);
 
+    /**
+     * 异步发送普通消息。
+     * 消息交给 RocketMQ 客户端后立即返回，调用线程不等待 Broker 响应，可以在 Netty I/O 线程中调用。
+     * 在途（已发送、尚未收到响应）的消息数量有上限，达到上限时返回的 Future 以
+     * {@link java.util.concurrent.RejectedExecutionException} 异常完成，由调用方决定重试或丢弃。
+     *
+     * @param rocketMQData 包含 Topic 和消息数据的 RocketMQData 对象
+     * @return 发送成功时以 SendResult 完成，发送失败或被拒绝时异常完成
+     * @throws IllegalArgumentException 如果 rocketMQData 或其属性为 null
+     */
+    CompletableFuture<SendResult> sendAsync(RocketMQData<T> rocketMQData);
+
     /**
      * 发送事务消息。
      * 发送事务消息到 RocketMQ，确保消息与本地事务的一致性。
@@ -0,0 +1,287 @@
+package com.im.common.mq.impl;
+
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.messaging.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 Topic 合并发送的消息批处理器。
+ * 同一 Topic 的消息先缓冲在本地，条数或字节数达到上限时立即以一次 RocketMQ 批量发送发出，
+ * 否则在第一条消息进入缓冲后等待 linger 时间再发出，把突发的小消息合并为少量的 Broker 请求。
+ * 每条消息有各自的 Future：批量发送成功时按消息拆分 SendResult（消息 ID 与队列偏移量），失败时全部异常完成。
+ */
+final class MessageBatcher implements AutoCloseable {
+
+    /**
+     * 估算单条消息字节数时，为 Topic、消息属性与批量编码头额外预留的字节数。
+     */
+    private static final int MESSAGE_OVERHEAD_BYTES = 128;
+
+    private final RocketMQTemplate rocketMQTemplate;
+
+    private final int maxMessages;
+
+    private final int maxBytes;
+
+    private final long lingerMillis;
+
+    /**
+     * 参与合并的 Topic，为空时合并所有 Topic。
+     */
+    private final Set<String> topics;
+
+    private final ConcurrentHashMap<String, TopicBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService lingerScheduler;
+
+    /**
+     * 是否已关闭。在缓冲的锁内检查：关闭后加入的消息直接发送，不再进入缓冲。
+     */
+    private volatile boolean closed;
+
+    MessageBatcher(RocketMQTemplate rocketMQTemplate, int maxMessages, int maxBytes, long lingerMillis, Set<String> topics) {
+        if (maxMessages <= 0) {
+            throw new IllegalArgumentException("Max batch messages must be positive");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Max batch bytes must be positive");
+        }
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.lingerMillis = Math.max(0L, lingerMillis);
+        this.topics = topics;
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mq-sender-batch-linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 判断该 Topic 是否参与合并。
+     */
+    boolean accepts(String topic) {
+        return topics.isEmpty() || topics.contains(topic);
+    }
+
+    /**
+     * 把消息加入对应 Topic 的缓冲，必要时立即发送。
+     *
+     * @param topic   Topic
+     * @param message 消息
+     * @param future  消息发送完成时完成的 Future
+     */
+    void add(String topic, Message<String> message, CompletableFuture<SendResult> future) {
+        int bytes = message.getPayload().getBytes(StandardCharsets.UTF_8).length + topic.length() + MESSAGE_OVERHEAD_BYTES;
+        Pending pending = new Pending(message, future);
+        if (bytes >= maxBytes) {
+            // 单条消息已达到字节上限，单独发送
+            send(topic, List.of(pending));
+            return;
+        }
+
+        TopicBuffer buffer = buffers.computeIfAbsent(topic, t -> new TopicBuffer());
+        List<Pending> full = null;
+        boolean first = false;
+        boolean direct = false;
+        long generation = 0L;
+        synchronized (buffer) {
+            if (closed) {
+                // close() 在设置 closed 之后才获取缓冲的锁发送剩余消息，此时加入缓冲的消息不会再被发送
+                direct = true;
+            } else {
+                // 加入后会超过字节上限时，先发出已缓冲的消息
+                full = buffer.bytes + bytes > maxBytes ? buffer.drain() : null;
+                buffer.pending.add(pending);
+                buffer.bytes += bytes;
+                first = buffer.pending.size() == 1;
+                if (buffer.pending.size() >= maxMessages) {
+                    List<Pending> drained = buffer.drain();
+                    full = full == null ? drained : concat(full, drained);
+                    first = false;
+                }
+                generation = buffer.generation;
+            }
+        }
+        if (direct) {
+            send(topic, List.of(pending));
+            return;
+        }
+        if (full != null) {
+            sendDrained(topic, full);
+        }
+        if (first) {
+            long lingerGeneration = generation;
+            try {
+                lingerScheduler.schedule(() -> flush(topic, lingerGeneration), lingerMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 加入缓冲之后 linger 线程已被关闭，立即发送
+                flush(topic, generation);
+            }
+        }
+    }
+
+    /**
+     * 发送所有缓冲中的消息并停止 linger 线程，之后加入的消息直接发送。
+     */
+    @Override
+    public void close() {
+        closed = true;
+        lingerScheduler.shutdownNow();
+        for (String topic : buffers.keySet()) {
+            flush(topic, -1L);
+        }
+    }
+
+    /**
+     * linger 到期时发送缓冲中的消息；generation 不匹配说明该批消息已因达到上限被发出。
+     */
+    private void flush(String topic, long generation) {
+        TopicBuffer buffer = buffers.get(topic);
+        if (buffer == null) {
+            return;
+        }
+        List<Pending> drained;
+        synchronized (buffer) {
+            if (buffer.pending.isEmpty() || (generation >= 0 && generation != buffer.generation)) {
+                return;
+            }
+            drained = buffer.drain();
+        }
+        send(topic, drained);
+    }
+
+    /**
+     * 发送从缓冲中取出的消息，一次取出的消息可能超过单批条数上限（见 {@link #add}），按上限拆分。
+     */
+    private void sendDrained(String topic, List<Pending> drained) {
+        for (int from = 0; from < drained.size(); from += maxMessages) {
+            send(topic, drained.subList(from, Math.min(from + maxMessages, drained.size())));
+        }
+    }
+
+    private void send(String topic, List<Pending> batch) {
+        try {
+            if (batch.size() == 1) {
+                Pending pending = batch.get(0);
+                rocketMQTemplate.asyncSend(topic, pending.message, new SendCallback() {
+                    @Override
+                    public void onSuccess(SendResult sendResult) {
+                        pending.future.complete(sendResult);
+                    }
+
+                    @Override
+                    public void onException(Throwable e) {
+                        fail(topic, batch, e);
+                    }
+                });
+                return;
+            }
+
+            List<Message<String>> messages = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                messages.add(pending.message);
+            }
+            rocketMQTemplate.asyncSend(topic, messages, new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    complete(batch, sendResult);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    fail(topic, batch, e);
+                }
+            });
+        } catch (Exception e) {
+            fail(topic, batch, e);
+        }
+    }
+
+    /**
+     * 把批量发送的结果拆分给每条消息：批量结果的消息 ID 以逗号分隔，队列偏移量为第一条消息的偏移量。
+     */
+    private static void complete(List<Pending> batch, SendResult sendResult) {
+        String[] msgIds = split(sendResult.getMsgId(), batch.size());
+        String[] offsetMsgIds = split(sendResult.getOffsetMsgId(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            SendResult result = new SendResult(sendResult.getSendStatus(),
+                    msgIds != null ? msgIds[i] : sendResult.getMsgId(),
+                    offsetMsgIds != null ? offsetMsgIds[i] : sendResult.getOffsetMsgId(),
+                    sendResult.getMessageQueue(), sendResult.getQueueOffset() + i);
+            result.setRegionId(sendResult.getRegionId());
+            result.setTransactionId(sendResult.getTransactionId());
+            batch.get(i).future.complete(result);
+        }
+    }
+
+    private static void fail(String topic, List<Pending> batch, Throwable e) {
+        System.err.println("Failed to send " + batch.size() + " messages to topic: " + topic + ", error: " + e.getMessage());
+        for (Pending pending : batch) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static String[] split(String ids, int expected) {
+        if (ids == null) {
+            return null;
+        }
+        String[] parts = ids.split(",");
+        return parts.length == expected ? parts : null;
+    }
+
+    private static List<Pending> concat(List<Pending> first, List<Pending> second) {
+        List<Pending> all = new ArrayList<>(first.size() + second.size());
+        all.addAll(first);
+        all.addAll(second);
+        return all;
+    }
+
+    /**
+     * 单个 Topic 的缓冲，通过 synchronized (buffer) 访问。
+     */
+    private static final class TopicBuffer {
+
+        private List<Pending> pending = new ArrayList<>();
+
+        private int bytes;
+
+        /**
+         * 每次取出缓冲时递增，用于识别过期的 linger 任务。
+         */
+        private long generation;
+
+        private List<Pending> drain() {
+            List<Pending> drained = pending;
+            pending = new ArrayList<>();
+            bytes = 0;
+            generation++;
+            return drained;
+        }
+    }
+
+    private static final class Pending {
+
+        private final Message<String> message;
+
+        private final CompletableFuture<SendResult> future;
+
+        private Pending(Message<String> message, CompletableFuture<SendResult> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+}
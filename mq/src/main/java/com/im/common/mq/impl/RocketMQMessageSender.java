@@ -2,27 +2,124 @@ package com.im.common.mq.impl;
 import com.alibaba.fastjson.JSON;
 import com.im.common.domain.model.RocketMQData;
 import com.im.common.mq.MessageSender;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 /**
  * 基于 RocketMQ 的消息发送实现类。
  * 实现 MessageSender 接口，提供普通消息和事务消息的发送功能。
  * 使用 RocketMQTemplate 与 RocketMQ 进行交互。
+ *
+ * <p>异步发送的在途消息数量由 mq.sender.max-in-flight 限制（默认 1024），
+ * 达到上限时最多等待 mq.sender.acquire-timeout-millis（默认 0，即不等待）后拒绝发送。</p>
+ *
+ * <p>mq.sender.batch.enabled=true 时，异步发送按 Topic 合并为 RocketMQ 批量发送（见 {@link MessageBatcher}）：
+ * 条数达到 mq.sender.batch.max-messages（默认 64）、字节数达到 mq.sender.batch.max-bytes（默认 1MB，需小于 Broker 的 4MB 限制）
+ * 或第一条消息等待 mq.sender.batch.linger-millis（默认 5）后发送。
+ * mq.sender.batch.topics 指定参与合并的 Topic（逗号分隔，为空时所有 Topic），例如 IM_MESSAGE_GROUP_QUEUE,IM_RESULT_GROUP_QUEUE。
+ * 同步发送与事务消息不合并。</p>
  */
 @Component
-public class RocketMQMessageSender implements MessageSender<Object> {
+public class RocketMQMessageSender implements MessageSender<Object>, InitializingBean, DisposableBean {
 
     @Autowired
     private RocketMQTemplate rocketMQTemplate;
 
+    /**
+     * 异步发送的在途消息许可。
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * 等待在途许可的最长时间（毫秒）。
+     */
+    private final long acquireTimeoutMillis;
+
+    private final boolean batchEnabled;
+
+    private final int batchMaxMessages;
+
+    private final int batchMaxBytes;
+
+    private final long batchLingerMillis;
+
+    private final Set<String> batchTopics;
+
+    /**
+     * 异步发送的批处理器，未启用合并时为 null。
+     */
+    private MessageBatcher batcher;
+
+    /**
+     * 构造函数。
+     *
+     * @param maxInFlight          异步发送的最大在途消息数量
+     * @param acquireTimeoutMillis 达到上限时等待许可的最长时间（毫秒），不大于 0 时不等待
+     * @param batchEnabled         是否合并异步发送的消息
+     * @param batchMaxMessages     单批最多消息条数
+     * @param batchMaxBytes        单批最多字节数
+     * @param batchLingerMillis    第一条消息进入缓冲后最多等待的时间（毫秒）
+     * @param batchTopics          参与合并的 Topic，逗号分隔，为空时所有 Topic
+     */
+    public RocketMQMessageSender(@Value("${mq.sender.max-in-flight:1024}") int maxInFlight,
+                                 @Value("${mq.sender.acquire-timeout-millis:0}") long acquireTimeoutMillis,
+                                 @Value("${mq.sender.batch.enabled:false}") boolean batchEnabled,
+                                 @Value("${mq.sender.batch.max-messages:64}") int batchMaxMessages,
+                                 @Value("${mq.sender.batch.max-bytes:1048576}") int batchMaxBytes,
+                                 @Value("${mq.sender.batch.linger-millis:5}") long batchLingerMillis,
+                                 @Value("${mq.sender.batch.topics:}") String batchTopics) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in-flight messages must be positive");
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.batchEnabled = batchEnabled;
+        this.batchMaxMessages = batchMaxMessages;
+        this.batchMaxBytes = batchMaxBytes;
+        this.batchLingerMillis = batchLingerMillis;
+        this.batchTopics = Arrays.stream(batchTopics.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (batchEnabled) {
+            batcher = new MessageBatcher(rocketMQTemplate, batchMaxMessages, batchMaxBytes, batchLingerMillis, batchTopics);
+        }
+    }
+
+    /**
+     * 关闭时发送批处理器中缓冲的消息。
+     */
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
     /**
      * 发送普通消息。
-     * 异步发送消息到 RocketMQ，消息会被立即投递到消息队列。
+     * 同步发送消息到 RocketMQ，调用线程等待 Broker 响应后返回；不希望阻塞调用线程时使用 {@link #sendAsync(RocketMQData)}。
      *
      * @param rocketMQData 包含 Topic 和消息数据的 RocketMQData 对象
      * @return 发送是否成功，成功返回 true，失败返回 false
@@ -57,6 +154,72 @@ public class RocketMQMessageSender implements MessageSender<Object> {
         }
     }
 
+    /**
+     * 异步发送普通消息。
+     * 通过 RocketMQTemplate.asyncSend 发送，Broker 的响应在 RocketMQ 客户端的回调线程中完成返回的 Future，
+     * 因此 Future 的后续操作不应长时间阻塞。启用合并时消息先进入批处理器，每条消息仍单独完成自己的 Future。
+     *
+     * @param rocketMQData 包含 Topic 和消息数据的 RocketMQData 对象
+     * @return 发送成功时以 SendResult 完成，发送失败或被拒绝时异常完成
+     * @throws IllegalArgumentException 如果 rocketMQData 或其属性为 null
+     */
+    @Override
+    public CompletableFuture<SendResult> sendAsync(RocketMQData<Object> rocketMQData) {
+        // 参数校验
+        if (rocketMQData == null) {
+            throw new IllegalArgumentException("RocketMQData cannot be null");
+        }
+        if (!StringUtils.hasText(rocketMQData.getTopic())) {
+            throw new IllegalArgumentException("Topic cannot be null or empty");
+        }
+        if (rocketMQData.getData() == null) {
+            throw new IllegalArgumentException("Message data cannot be null");
+        }
+
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        try {
+            boolean acquired = acquireTimeoutMillis > 0
+                    ? inFlight.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : inFlight.tryAcquire();
+            if (!acquired) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        "Too many in-flight messages, topic: " + rocketMQData.getTopic()));
+                return future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        future.whenComplete((result, e) -> inFlight.release());
+        String topic = rocketMQData.getTopic();
+        try {
+            Message<String> message = getMessage(rocketMQData);
+            if (batcher != null && batcher.accepts(topic)) {
+                batcher.add(topic, message, future);
+                return future;
+            }
+            rocketMQTemplate.asyncSend(topic, message, new SendCallback() {
+                @Override
+                public void onSuccess(SendResult sendResult) {
+                    future.complete(sendResult);
+                }
+
+                @Override
+                public void onException(Throwable e) {
+                    System.err.println("Failed to send message to topic: " + topic + ", error: " + e.getMessage());
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (Exception e) {
+            // 消息未交给 RocketMQ 客户端（如序列化失败、生产者未启动），回调不会执行
+            System.err.println("Failed to send message to topic: " + topic + ", error: " + e.getMessage());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      * 发送事务消息。
      * 发送事务消息到 RocketMQ，确保消息与本地事务的一致性。
@@ -112,9 +275,8 @@ public class RocketMQMessageSender implements MessageSender<Object> {
         // 可以在这里添加消息头、标签等信息
         Message<String> message = MessageBuilder
                 .withPayload(messageContent)
-                // 可选：添加消息头信息
+                // 可选：添加消息头信息（timestamp 由 MessageHeaders 自动生成，且为只读，不能手动设置）
                 .setHeader("topic", rocketMQData.getTopic())
-                .setHeader("timestamp", System.currentTimeMillis())
                 .build();
 
         return message;